@@ -0,0 +1,272 @@
+package city.emerald.bastion;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.bukkit.Location;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+
+import city.emerald.bastion.economy.LootManager;
+import city.emerald.bastion.economy.TradeManager;
+import city.emerald.bastion.economy.UpgradeManager;
+import city.emerald.bastion.game.GameStateManager;
+import city.emerald.bastion.game.StatsManager;
+import city.emerald.bastion.game.UIManager;
+import city.emerald.bastion.wave.CreeperExplosionManager;
+import city.emerald.bastion.wave.LightningManager;
+import city.emerald.bastion.wave.MobAI;
+import city.emerald.bastion.wave.MobSpawnManager;
+import city.emerald.bastion.wave.WaveManager;
+
+/**
+ * One village defense game: its village, barrier, wave state, mob registry and the
+ * managers around them, driven by a {@link BastionTicker} of its own anchored at the
+ * village. Arenas share only the plugin's configuration, log and lifetime player
+ * stats, each keeping the stats of its own running game, so
+ * several games can run side by side in different villages or worlds.
+ */
+public final class Arena {
+
+  private final Bastion plugin;
+  private final String name;
+  private final BastionTicker ticker;
+  private final GameStateManager gameStateManager;
+  private final VillageManager villageManager;
+  private final BarrierManager barrierManager;
+  private final LightningManager lightningManager;
+  private final WaveManager waveManager;
+  private final LootManager lootManager;
+  private final MobSpawnManager mobSpawnManager;
+  private final TradeManager tradeManager;
+  private final UpgradeManager upgradeManager;
+  private final UIManager uiManager;
+  private final CreeperExplosionManager creeperExplosionManager;
+  private final MobAI mobAI;
+  private final Consumer<BastionConfig> configSubscriber;
+  // Listeners that only matter while a game runs, see arm()
+  private final List<Listener> gameListeners;
+  private boolean armed;
+  private StatsManager.GameStats gameStats;
+  // Latest published state, read from any thread
+  private volatile BastionSnapshot snapshot;
+  private long snapshotUpgradeVersion;
+  private Location snapshotVillage;
+  private boolean snapshotQueued;
+
+  Arena(Bastion plugin, String name) {
+    this.plugin = plugin;
+    this.name = name;
+    this.ticker = new BastionTicker(plugin);
+    this.gameStats = new StatsManager.GameStats();
+
+    // Initialize managers in the correct order to resolve dependencies
+    // 1. Standalone managers
+    gameStateManager = new GameStateManager(plugin, ticker);
+    villageManager = new VillageManager(plugin, ticker);
+
+    // 2. Managers that depend on standalone managers
+    barrierManager = new BarrierManager(plugin, ticker, villageManager);
+    lightningManager = new LightningManager(plugin, ticker, barrierManager);
+    waveManager = new WaveManager(plugin, ticker, villageManager, lightningManager, gameStateManager);
+    lootManager = new LootManager(plugin, gameStateManager);
+    mobSpawnManager = new MobSpawnManager(plugin, ticker, villageManager, barrierManager, lootManager);
+    tradeManager = new TradeManager(plugin, villageManager, waveManager);
+    upgradeManager = new UpgradeManager(plugin, villageManager);
+    uiManager = new UIManager(plugin, ticker, waveManager, villageManager, gameStateManager);
+    creeperExplosionManager = new CreeperExplosionManager(plugin, ticker);
+    mobAI = new MobAI(plugin, ticker, villageManager, gameStateManager, mobSpawnManager.getMobRegistry());
+
+    // 3. Inject dependencies using setters to break circular dependencies
+    gameStateManager.setArena(this);
+    gameStateManager.setWaveManager(waveManager);
+    gameStateManager.setVillageManager(villageManager);
+    mobSpawnManager.setWaveManager(waveManager);
+    mobSpawnManager.setMobAI(mobAI);
+    waveManager.setMobSpawnManager(mobSpawnManager);
+    villageManager.setUpgradeManager(upgradeManager);
+    villageManager.setBarrierManager(barrierManager);
+
+    this.gameListeners = List.of(
+      mobSpawnManager,
+      creeperExplosionManager,
+      new ArenaEventRouter(
+        ticker,
+        gameStateManager,
+        villageManager,
+        mobSpawnManager,
+        mobAI,
+        creeperExplosionManager,
+        lootManager,
+        upgradeManager
+      )
+    );
+    // Configuration changes arrive on the thread that made them
+    this.configSubscriber = updated -> ticker.execute(this::reloadConfiguration);
+    ticker.setTickEndHook(this::publishSnapshot);
+  }
+
+  /**
+   * Starts the ticker and the listeners needed in the lobby.
+   */
+  void start() {
+    publishSnapshot();
+    ticker.start();
+    plugin.getServer().getPluginManager().registerEvents(gameStateManager, plugin);
+    plugin.subscribeConfig(configSubscriber);
+  }
+
+  /**
+   * Stops any running game and removes its mobs right away, then releases the
+   * arena's listeners and ticker. Used on plugin disable and when an arena is removed.
+   */
+  void shutdown() {
+    gameStateManager.stopGame();
+    // The ticker stops below, so remove queued mobs immediately
+    mobSpawnManager.flushCleanup();
+    barrierManager.deactivate();
+    uiManager.cleanup();
+    creeperExplosionManager.cleanup();
+    HandlerList.unregisterAll(gameStateManager);
+    HandlerList.unregisterAll(tradeManager);
+    plugin.unsubscribeConfig(configSubscriber);
+    ticker.stop();
+  }
+
+  /**
+   * Registers the game listeners, starts the per-game tasks and the game's stats.
+   * Called when a game leaves the lobby.
+   */
+  public void arm() {
+    if (armed) {
+      return;
+    }
+    armed = true;
+    gameStats = new StatsManager.GameStats();
+    for (Listener listener : gameListeners) {
+      plugin.getServer().getPluginManager().registerEvents(listener, plugin);
+    }
+    mobAI.arm();
+    uiManager.arm();
+    plugin.rebalanceArenas();
+  }
+
+  /**
+   * Unregisters the game listeners and stops the per-game tasks, so an idle lobby
+   * costs nothing per event or tick, and records the game's stats. Called when a
+   * game returns to the lobby; queued mob cleanup still finishes on the ticker.
+   */
+  public void disarm() {
+    if (!armed) {
+      return;
+    }
+    armed = false;
+    plugin.getStatsManager().recordGame(gameStats);
+    for (Listener listener : gameListeners) {
+      HandlerList.unregisterAll(listener);
+    }
+    mobAI.disarm();
+    uiManager.disarm();
+    creeperExplosionManager.cleanup();
+    plugin.rebalanceArenas();
+  }
+
+  /**
+   * Gets the stats of the running game, or of the last one while in the lobby.
+   */
+  public StatsManager.GameStats getGameStats() {
+    return gameStats;
+  }
+
+  /**
+   * Checks whether a game is running, that is whether the arena is armed.
+   */
+  public boolean isArmed() {
+    return armed;
+  }
+
+  /**
+   * Checks whether a location lies inside this arena's barrier.
+   */
+  public boolean contains(Location location) {
+    Optional<Location> center = villageManager.getVillageCenter();
+    return (
+      center.isPresent() &&
+      location.getWorld() == center.get().getWorld() &&
+      barrierManager.isInBarrier(location, center.get())
+    );
+  }
+
+  /**
+   * Gets the state published at the end of the arena's last tick. Safe to call from
+   * any thread.
+   */
+  public BastionSnapshot getSnapshot() {
+    return snapshot;
+  }
+
+  /**
+   * Publishes a fresh snapshot on the next tick, for changes made while no game is
+   * running and the ticker may be idle.
+   */
+  public void requestSnapshot() {
+    if (!snapshotQueued) {
+      snapshotQueued = true;
+      ticker.runLater(BastionTicker.Phase.UI, 1L, () -> snapshotQueued = false);
+    }
+  }
+
+  private void publishSnapshot() {
+    long upgradeVersion = upgradeManager.getVersion();
+    Location village = villageManager.getVillageCenter().orElse(null);
+    snapshot = BastionSnapshot.capture(this, snapshot, snapshotUpgradeVersion, snapshotVillage);
+    snapshotUpgradeVersion = upgradeVersion;
+    snapshotVillage = village;
+  }
+
+  private void reloadConfiguration() {
+    ticker.reloadBudgets();
+    mobSpawnManager.reloadDifficultyTable();
+    lootManager.reloadLootTables();
+    barrierManager.reloadConfiguration();
+    waveManager.reloadWaveDuration();
+    mobAI.reloadConfiguration();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public BastionTicker getTicker() {
+    return ticker;
+  }
+
+  public GameStateManager getGameStateManager() {
+    return gameStateManager;
+  }
+
+  public VillageManager getVillageManager() {
+    return villageManager;
+  }
+
+  public BarrierManager getBarrierManager() {
+    return barrierManager;
+  }
+
+  public WaveManager getWaveManager() {
+    return waveManager;
+  }
+
+  public MobSpawnManager getMobSpawnManager() {
+    return mobSpawnManager;
+  }
+
+  public UpgradeManager getUpgradeManager() {
+    return upgradeManager;
+  }
+
+  public UIManager getUIManager() {
+    return uiManager;
+  }
+}
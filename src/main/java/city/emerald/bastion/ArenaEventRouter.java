@@ -0,0 +1,152 @@
+package city.emerald.bastion;
+
+import org.bukkit.entity.Creeper;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Villager;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.entity.EntityTargetEvent;
+import org.bukkit.event.entity.EntityTargetLivingEntityEvent;
+
+import city.emerald.bastion.economy.LootManager;
+import city.emerald.bastion.economy.UpgradeManager;
+import city.emerald.bastion.game.GameStateManager;
+import city.emerald.bastion.wave.CreeperExplosionManager;
+import city.emerald.bastion.wave.MobAI;
+import city.emerald.bastion.wave.MobSpawnManager;
+import city.emerald.bastion.wave.WaveMobRegistry;
+
+/**
+ * The single listener for the entity death, target and damage events Bastion reacts to.
+ * Each event is classified once (wave mob, player or villager) and dispatched to the
+ * managers' typed handlers in a fixed order; events that do not concern the arena
+ * return after one check. Damage is only adjusted for this arena's participants and
+ * registered villagers, never for those of another arena sharing the world. On Folia, events for entities outside the arena region
+ * fire on another thread: a wave mob's drops are still edited while its death event
+ * fires, and the death is then booked on the arena thread; target and damage events
+ * are left to vanilla.
+ */
+final class ArenaEventRouter implements Listener {
+
+  private final BastionTicker ticker;
+  private final GameStateManager gameStateManager;
+  private final VillageManager villageManager;
+  private final MobSpawnManager mobSpawnManager;
+  private final WaveMobRegistry mobRegistry;
+  private final MobAI mobAI;
+  private final CreeperExplosionManager creeperExplosionManager;
+  private final LootManager lootManager;
+  private final UpgradeManager upgradeManager;
+
+  ArenaEventRouter(
+    BastionTicker ticker,
+    GameStateManager gameStateManager,
+    VillageManager villageManager,
+    MobSpawnManager mobSpawnManager,
+    MobAI mobAI,
+    CreeperExplosionManager creeperExplosionManager,
+    LootManager lootManager,
+    UpgradeManager upgradeManager
+  ) {
+    this.ticker = ticker;
+    this.gameStateManager = gameStateManager;
+    this.villageManager = villageManager;
+    this.mobSpawnManager = mobSpawnManager;
+    this.mobRegistry = mobSpawnManager.getMobRegistry();
+    this.mobAI = mobAI;
+    this.creeperExplosionManager = creeperExplosionManager;
+    this.lootManager = lootManager;
+    this.upgradeManager = upgradeManager;
+  }
+
+  @EventHandler
+  public void onEntityDeath(EntityDeathEvent event) {
+    LivingEntity entity = event.getEntity();
+    if (!mobRegistry.contains(entity)) {
+      return;
+    }
+
+    // Drops can only be changed while the event fires, on the thread that owns the mob
+    if (gameStateManager.isGameActive()) {
+      lootManager.handleMobDeath(event);
+    }
+    mobSpawnManager.tagDrops(event);
+
+    ticker.execute(() -> {
+      mobSpawnManager.handleWaveMobDeath(entity);
+      if (entity instanceof Creeper creeper) {
+        creeperExplosionManager.handleCreeperDeath(creeper);
+      }
+    });
+  }
+
+  /**
+   * Also receives {@link EntityTargetLivingEntityEvent}, which shares this handler list.
+   */
+  @EventHandler
+  public void onEntityTarget(EntityTargetEvent event) {
+    if (!(event.getEntity() instanceof Creeper creeper) || !ticker.isArenaThread() || !mobRegistry.contains(creeper)) {
+      return;
+    }
+
+    // Retarget first so the progress monitor follows the final target
+    mobAI.handleCreeperTarget(event, creeper);
+    if (event instanceof EntityTargetLivingEntityEvent livingEvent) {
+      creeperExplosionManager.handleCreeperTarget(livingEvent, creeper);
+    }
+  }
+
+  @EventHandler
+  public void onEntityDamageByEntity(EntityDamageByEntityEvent event) {
+    Entity victim = event.getEntity();
+    boolean playerAttack = event.getDamager() instanceof Player;
+    if (!playerAttack && !(victim instanceof Player) && !(victim instanceof Villager)) {
+      return;
+    }
+    if (!gameStateManager.isGameActive() || !ticker.isArenaThread()) {
+      return;
+    }
+
+    if (playerAttack && gameStateManager.isParticipant((Player) event.getDamager())) {
+      handlePlayerAttack(event, (Player) event.getDamager());
+    }
+    if (victim instanceof Player player) {
+      if (gameStateManager.isParticipant(player)) {
+        handlePlayerDamaged(event, player);
+      }
+    } else if (victim instanceof Villager villager && villageManager.isRegisteredVillager(villager)) {
+      handleVillagerDamaged(event);
+    }
+  }
+
+  private void handlePlayerAttack(EntityDamageByEntityEvent event, Player player) {
+    int damageLevel = upgradeManager.getPlayerUpgradeLevel(
+      player,
+      UpgradeManager.UpgradeType.DAMAGE_BOOST
+    );
+    if (damageLevel > 0) {
+      event.setDamage(event.getDamage() * (1 + (damageLevel * 0.2))); // 20% increase per level
+    }
+  }
+
+  private void handlePlayerDamaged(EntityDamageByEntityEvent event, Player player) {
+    int protectionLevel = upgradeManager.getPlayerUpgradeLevel(
+      player,
+      UpgradeManager.UpgradeType.PROTECTION
+    );
+    if (protectionLevel > 0) {
+      event.setDamage(event.getDamage() * (1 - (protectionLevel * 0.1))); // 10% reduction per level
+    }
+  }
+
+  private void handleVillagerDamaged(EntityDamageByEntityEvent event) {
+    double reduction = villageManager.getBarrierDamageReduction();
+    if (reduction > 0) {
+      event.setDamage(event.getDamage() * (1 - reduction));
+    }
+  }
+}
@@ -9,14 +9,15 @@ import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerMoveEvent;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
 
 public class BarrierManager implements Listener {
 
   private final Bastion plugin;
+  private final BastionTicker ticker;
   private final VillageManager villageManager;
   private boolean isActive;
   private int barrierRadius;
@@ -26,7 +27,8 @@ public class BarrierManager implements Listener {
   private double particleDensity;
   private int particleSpacing;
   private int updateInterval;
-  private BukkitRunnable particleTask;
+  private BastionTicker.Task particleTask;
+  private final Listener spawnBlocker;
 
   // Enhanced particle system settings
   private float particleSize;
@@ -37,48 +39,44 @@ public class BarrierManager implements Listener {
   private Color primaryColor;
   private Color secondaryColor;
   private int particleIntensity;
+  // Spacing and intensity of the current run, after load-based scaling
+  private int activeSpacing;
+  private int activeIntensity;
 
-  public BarrierManager(Bastion plugin, VillageManager villageManager) {
+  public BarrierManager(Bastion plugin, BastionTicker ticker, VillageManager villageManager) {
     this.plugin = plugin;
+    this.ticker = ticker;
     this.villageManager = villageManager;
     this.isActive = false;
 
     // Load configuration values
     loadConfiguration();
 
-    // Register both the barrier and spawn prevention events
-    plugin.getServer().getPluginManager().registerEvents(this, plugin);
-
-    // Register event to prevent natural mob spawning
-    plugin
-      .getServer()
-      .getPluginManager()
-      .registerEvents(
-        new Listener() {
-          @EventHandler
-          public void onCreatureSpawn(
-            org.bukkit.event.entity.CreatureSpawnEvent event
-          ) {
-            if (!isActive) return;
+    // Prevents natural mob spawning; registered with the barrier events while active
+    this.spawnBlocker =
+      new Listener() {
+        @EventHandler
+        public void onCreatureSpawn(
+          org.bukkit.event.entity.CreatureSpawnEvent event
+        ) {
+          if (!isActive) return;
 
-            // Allow only our custom spawns and villagers
+          // Allow only our custom spawns and villagers
+          if (
+            event.getSpawnReason() !=
+            org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason.CUSTOM &&
+            event.getEntityType() != org.bukkit.entity.EntityType.VILLAGER
+          ) {
+            Location loc = event.getLocation();
             if (
-              event.getSpawnReason() !=
-              org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason.CUSTOM &&
-              event.getEntityType() != org.bukkit.entity.EntityType.VILLAGER
+              villageManager.getVillageCenter().isPresent() &&
+              isInBarrier(loc, villageManager.getVillageCenter().get())
             ) {
-              Location loc = event.getLocation();
-              if (
-                villageManager.getVillageCenter().isPresent() &&
-                isInBarrier(loc, villageManager.getVillageCenter().get())
-              ) {
-                event.setCancelled(true);
-              }
+              event.setCancelled(true);
             }
           }
-        },
-        plugin
-      );
+        }
+      };
   }
 
   public VillageManager getVillageManager() {
@@ -170,6 +168,10 @@ public class BarrierManager implements Listener {
       );
     }
 
+    if (!isActive) {
+      plugin.getServer().getPluginManager().registerEvents(this, plugin);
+      plugin.getServer().getPluginManager().registerEvents(spawnBlocker, plugin);
+    }
     isActive = true;
     clearFriendlyMobs();
     startParticleEffect();
@@ -179,6 +181,10 @@ public class BarrierManager implements Listener {
    * Deactivates the barrier system.
    */
   public void deactivate() {
+    if (isActive) {
+      HandlerList.unregisterAll(this);
+      HandlerList.unregisterAll(spawnBlocker);
+    }
     isActive = false;
     if (particleTask != null) {
       particleTask.cancel();
@@ -190,27 +196,26 @@ public class BarrierManager implements Listener {
    * Creates particle effects to visualize the barrier.
    */
   private void startParticleEffect() {
+    // Run particle effect using configured interval
     particleTask =
-      new BukkitRunnable() {
-        @Override
-        public void run() {
-          if (!villageManager.getVillageCenter().isPresent()) {
-            deactivate();
-            return;
-          }
-          Location center = villageManager.getVillageCenter().get();
-          World world = center.getWorld();
-
-          if (domeShape) {
-            generateDomeParticles(world, center);
-          } else {
-            generateCylindricalParticles(world, center);
-          }
+      ticker.runTimer(BastionTicker.Phase.COSMETICS, 1L, updateInterval, () -> {
+        if (!villageManager.getVillageCenter().isPresent()) {
+          deactivate();
+          return;
         }
-      };
+        Location center = villageManager.getVillageCenter().get();
+        World world = center.getWorld();
 
-    // Run particle effect using configured interval
-    particleTask.runTaskTimer(plugin, 0L, updateInterval);
+        QualityGovernor.Quality quality = plugin.getQualityGovernor().getQuality();
+        activeSpacing = quality.scaleSpacing(particleSpacing);
+        activeIntensity = quality.scaleIntensity(particleIntensity);
+
+        if (domeShape) {
+          generateDomeParticles(world, center);
+        } else {
+          generateCylindricalParticles(world, center);
+        }
+      });
   }
 
   /**
@@ -218,7 +223,7 @@ public class BarrierManager implements Listener {
    */
   private void generateDomeParticles(World world, Location center) {
     double angleStep = Math.toRadians(
-      particleSpacing * 360.0 / (2 * Math.PI * barrierRadius)
+      activeSpacing * 360.0 / (2 * Math.PI * barrierRadius)
     );
 
     // Generate full sphere using spherical coordinates, but limit underground extent
@@ -240,7 +245,7 @@ public class BarrierManager implements Listener {
       }
 
       double circumference = 2 * Math.PI * ringRadius;
-      int pointsOnRing = Math.max(8, (int) (circumference / particleSpacing));
+      int pointsOnRing = Math.max(8, (int) (circumference / activeSpacing));
 
       for (int i = 0; i < pointsOnRing; i++) {
         double theta = 2 * Math.PI * i / pointsOnRing; // Azimuth angle
@@ -284,7 +289,7 @@ public class BarrierManager implements Listener {
    * Generates cylindrical wall particle pattern extending underground (legacy mode)
    */
   private void generateCylindricalParticles(World world, Location center) {
-    for (int degree = 0; degree < 360; degree += particleSpacing) {
+    for (int degree = 0; degree < 360; degree += activeSpacing) {
       double radian = Math.toRadians(degree);
       double x = center.getX() + (barrierRadius * Math.cos(radian));
       double z = center.getZ() + (barrierRadius * Math.sin(radian));
@@ -296,7 +301,7 @@ public class BarrierManager implements Listener {
       int endY = center.getBlockY() + barrierHeight;
 
       // Generate particles from underground up to barrier height
-      for (int y = startY; y < endY; y += particleSpacing) {
+      for (int y = startY; y < endY; y += activeSpacing) {
         Location particleLoc = new Location(world, x, y, z);
 
         if (shouldShowParticleAtLocation(particleLoc, center)) {
@@ -414,7 +419,7 @@ public class BarrierManager implements Listener {
     }
 
     // Spawn multiple particle types for better visibility
-    for (int i = 0; i < particleIntensity; i++) {
+    for (int i = 0; i < activeIntensity; i++) {
       spawnPrimaryDustParticle(world, location, currentPrimaryColor);
       if (useMultipleParticleTypes) {
         spawnAdditionalParticles(world, location, i);
@@ -468,7 +473,7 @@ public class BarrierManager implements Listener {
     }
 
     // Add enchantment table particles for magical effect
-    if (i == 1 && particleIntensity > 1) {
+    if (i == 1 && activeIntensity > 1) {
       world.spawnParticle(
         Particle.ENCHANT,
         location.getX(),
@@ -483,7 +488,7 @@ public class BarrierManager implements Listener {
     }
 
     // Add firework spark for high intensity
-    if (i == 2 && particleIntensity > 2) {
+    if (i == 2 && activeIntensity > 2) {
       world.spawnParticle(
         Particle.FIREWORK,
         location.getX(),
@@ -541,13 +546,16 @@ public class BarrierManager implements Listener {
    * @param player The player to teleport
    */
   public void teleportToVillageCenter(Player player) {
-    villageManager
-      .getVillageCenter()
-      .ifPresent(center -> {
-        // Find safe location near center
-        Location safe = findSafeLocation(center);
-        player.teleport(safe);
-      });
+    // The village's blocks belong to the arena thread, the player to its own
+    ticker.execute(() ->
+      villageManager
+        .getVillageCenter()
+        .ifPresent(center -> {
+          // Find safe location near center
+          Location safe = findSafeLocation(center);
+          ticker.runFor(player, () -> player.teleportAsync(safe));
+        })
+    );
   }
 
   /**
@@ -576,8 +584,13 @@ public class BarrierManager implements Listener {
     Location center = villageManager.getVillageCenter().get();
     Location playerLoc = event.getTo();
 
-    // Check if player is trying to move outside barrier
-    if (!isInBarrier(playerLoc, center)) {
+    // Check if player is trying to move outside barrier; players outside it, such as
+    // those in another arena, are left alone
+    if (
+      playerLoc.getWorld() == center.getWorld() &&
+      isInBarrier(event.getFrom(), center) &&
+      !isInBarrier(playerLoc, center)
+    ) {
       event.setCancelled(true);
 
       // Push player back towards center
@@ -702,9 +715,12 @@ public class BarrierManager implements Listener {
     Location center = villageManager.getVillageCenter().get();
     World world = center.getWorld();
 
+    // Only look within the barrier's bounds rather than at every entity in the world
+    double verticalReach = Math.max(center.getY() - world.getMinHeight(), barrierHeight - center.getY());
+
     // Remove all non-hostile entities except villagers and players
     world
-      .getEntities()
+      .getNearbyEntities(center, barrierRadius, verticalReach, barrierRadius)
       .forEach(entity -> {
         if (
           entity instanceof org.bukkit.entity.LivingEntity &&
@@ -714,7 +730,7 @@ public class BarrierManager implements Listener {
           !(entity instanceof org.bukkit.entity.Golem) &&
           isInBarrier(entity.getLocation(), center)
         ) {
-          entity.remove();
+          ticker.runFor(entity, entity::remove);
         }
       });
   }
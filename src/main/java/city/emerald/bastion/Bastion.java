@@ -1,50 +1,45 @@
 package city.emerald.bastion;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
-import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.entity.Monster;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
-import org.bukkit.event.entity.EntityDamageByEntityEvent;
-import org.bukkit.event.entity.EntityDeathEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import city.emerald.bastion.command.ConfigCommand;
-import city.emerald.bastion.economy.LootManager;
-import city.emerald.bastion.economy.TradeManager;
 import city.emerald.bastion.economy.UpgradeManager;
 import city.emerald.bastion.game.GameStateManager;
 import city.emerald.bastion.game.StatsManager;
-import city.emerald.bastion.game.UIManager;
-import city.emerald.bastion.wave.CreeperExplosionManager;
-import city.emerald.bastion.wave.LightningManager;
-import city.emerald.bastion.wave.MobAI;
 import city.emerald.bastion.wave.MobSpawnManager;
 import city.emerald.bastion.wave.WaveManager;
 
 public final class Bastion extends JavaPlugin implements Listener {
 
+  public static final String DEFAULT_ARENA = "default";
+
   private FileConfiguration config;
+  private volatile BastionConfig settings;
+  private final List<Consumer<BastionConfig>> configSubscribers = new CopyOnWriteArrayList<>();
   private Logger logger;
-  private GameStateManager gameStateManager;
-  private UIManager uiManager;
+  private BastionLog bastionLog;
+  private QualityGovernor qualityGovernor;
   private StatsManager statsManager;
-  private VillageManager villageManager;
-  private BarrierManager barrierManager;
-  private WaveManager waveManager;
-  private MobSpawnManager mobSpawnManager;
-  private MobAI mobAI;
-  private LootManager lootManager;
-  private TradeManager tradeManager;
-  private UpgradeManager upgradeManager;
-  private LightningManager lightningManager;
-  private CreeperExplosionManager creeperExplosionManager;
+  // Arenas by name; commands may come from any region thread on Folia
+  private final Map<String, Arena> arenas = new ConcurrentSkipListMap<>();
+  // Arena picked with /bastion arena select, by sender name
+  private final Map<String, String> selectedArenas = new ConcurrentHashMap<>();
 
   @Override
   public void onEnable() {
@@ -52,44 +47,23 @@ public final class Bastion extends JavaPlugin implements Listener {
     logger = getLogger();
     saveDefaultConfig();
     config = getConfig();
+    settings = BastionConfig.compile(this);
+    bastionLog = new BastionLog(logger);
+    bastionLog.reload(this);
+    qualityGovernor = new QualityGovernor(this);
 
-    // Initialize managers in the correct order to resolve dependencies
-    // 1. Standalone managers
-    gameStateManager = new GameStateManager(this);
-    villageManager = new VillageManager(this);
+    // Player stats are kept across arenas
     statsManager = new StatsManager(this);
 
-    // 2. Managers that depend on standalone managers
-    barrierManager = new BarrierManager(this, villageManager);
-    lightningManager = new LightningManager(this, barrierManager);
-    waveManager = new WaveManager(this, villageManager, lightningManager, gameStateManager);
-    lootManager = new LootManager(this, gameStateManager);
-
-    // Initialize MobSpawnManager
-    mobSpawnManager = new MobSpawnManager(this, villageManager, barrierManager, lootManager);
-    mobSpawnManager.setWaveManager(waveManager);
-  
-    tradeManager = new TradeManager(this, villageManager, waveManager);
-    upgradeManager = new UpgradeManager(this, villageManager);
-    uiManager = new UIManager(this, waveManager, villageManager, gameStateManager);
-    creeperExplosionManager = new CreeperExplosionManager(this);
-
-    // Initialize MobAI
-    mobAI = new MobAI(this, villageManager, gameStateManager);
-    getServer().getPluginManager().registerEvents(mobAI, this);
-
-    // 3. Inject dependencies using setters to break circular dependencies
-    gameStateManager.setWaveManager(waveManager);
-    gameStateManager.setVillageManager(villageManager);
-    mobSpawnManager.setWaveManager(waveManager);
-    waveManager.setMobSpawnManager(mobSpawnManager);
-    villageManager.setUpgradeManager(upgradeManager);
-    villageManager.setBarrierManager(barrierManager);
-
-    // Register event listeners
+    // Re-apply cached configuration whenever a new snapshot is swapped in
+    subscribeConfig(updated -> bastionLog.reload(this));
+    subscribeConfig(updated -> qualityGovernor.reload());
+
+    // Register event listeners; each arena registers its own
     getServer().getPluginManager().registerEvents(this, this);
-    getServer().getPluginManager().registerEvents(gameStateManager, this);
-    getServer().getPluginManager().registerEvents(mobSpawnManager, this);
+
+    // Every server has one arena; more are added with /bastion arena create
+    createArena(DEFAULT_ARENA);
 
     // Register commands
     ConfigCommand configCommand = new ConfigCommand(this);
@@ -99,6 +73,133 @@ public final class Bastion extends JavaPlugin implements Listener {
     logger.info("Bastion plugin enabled successfully!");
   }
 
+  /**
+   * Creates and starts a new arena.
+   * @return The arena, or null if the name is taken
+   */
+  public Arena createArena(String name) {
+    if (arenas.containsKey(name)) {
+      return null;
+    }
+    Arena arena = new Arena(this, name);
+    arenas.put(name, arena);
+    arena.start();
+    return arena;
+  }
+
+  /**
+   * Stops any game in the arena and removes it. The default arena cannot be removed.
+   * @return True if the arena was removed
+   */
+  public boolean removeArena(String name) {
+    if (name.equals(DEFAULT_ARENA)) {
+      return false;
+    }
+    Arena arena = arenas.remove(name);
+    if (arena == null) {
+      return false;
+    }
+    arena.getTicker().execute(arena::shutdown);
+    selectedArenas.values().removeIf(name::equals);
+    return true;
+  }
+
+  public Arena getArena(String name) {
+    return arenas.get(name);
+  }
+
+  public Collection<Arena> getArenas() {
+    return arenas.values();
+  }
+
+  /**
+   * Gets the state an arena published at the end of its last tick. Safe to call from
+   * any thread, including async tasks of other plugins.
+   * @return The snapshot, or null if there is no such arena
+   */
+  public BastionSnapshot getSnapshot(String arenaName) {
+    Arena arena = arenas.get(arenaName);
+    return arena != null ? arena.getSnapshot() : null;
+  }
+
+  /**
+   * Finds the arena a command sender acts on: the arena whose barrier the sender
+   * stands in, else the one picked with /bastion arena select, else the default arena.
+   */
+  public Arena arenaFor(CommandSender sender) {
+    if (sender instanceof Player player) {
+      for (Arena arena : arenas.values()) {
+        if (arena.contains(player.getLocation())) {
+          return arena;
+        }
+      }
+    }
+    Arena selected = arenas.get(selectedArenas.getOrDefault(sender.getName(), DEFAULT_ARENA));
+    return selected != null ? selected : arenas.get(DEFAULT_ARENA);
+  }
+
+  /**
+   * Splits the tick budgets evenly between the arenas running a game, so every
+   * game gets the same share of the main thread however many run at once.
+   */
+  void rebalanceArenas() {
+    int running = 0;
+    for (Arena arena : arenas.values()) {
+      if (arena.isArmed()) {
+        running++;
+      }
+    }
+    for (Arena arena : arenas.values()) {
+      arena.getTicker().setBudgetShare(running);
+    }
+  }
+
+  /**
+   * Gets the lifetime player stats and game history, shared by all arenas.
+   */
+  public StatsManager getStatsManager() {
+    return statsManager;
+  }
+
+  public BastionLog getBastionLog() {
+    return bastionLog;
+  }
+
+  public QualityGovernor getQualityGovernor() {
+    return qualityGovernor;
+  }
+
+  /**
+   * Gets the compiled configuration snapshot. Hold on to the returned snapshot
+   * for the duration of an operation rather than calling this per value.
+   */
+  public BastionConfig getSettings() {
+    return settings;
+  }
+
+  /**
+   * Registers a callback run with the new snapshot after every configuration change.
+   */
+  public void subscribeConfig(Consumer<BastionConfig> subscriber) {
+    configSubscribers.add(subscriber);
+  }
+
+  public void unsubscribeConfig(Consumer<BastionConfig> subscriber) {
+    configSubscribers.remove(subscriber);
+  }
+
+  /**
+   * Compiles a new configuration snapshot after a reload or a runtime change
+   * through /bastionconfig, swaps it in and notifies the subscribed managers.
+   */
+  public void applyConfigChanges() {
+    BastionConfig updated = BastionConfig.compile(this);
+    settings = updated;
+    for (Consumer<BastionConfig> subscriber : configSubscribers) {
+      subscriber.accept(updated);
+    }
+  }
+
   // Safe config reading methods that handle both original types and string overrides
   public int getIntSafe(String path, int defaultValue) {
     Object value = getConfig().get(path);
@@ -169,30 +270,19 @@ public final class Bastion extends JavaPlugin implements Listener {
     return getConfig().getString(path, defaultValue);
   }
 
-  @EventHandler
-  public void onMobDeath(EntityDeathEvent event) {
-    if (!gameStateManager.isGameActive()) { return; }
-
-    if (event.getEntity() instanceof Monster) {
-      waveManager.onMobKill();
-    }
-
-    lootManager.handleMobDeath(event);
-  }
-
   @Override
   public void onDisable() {
     // Save any necessary data
     saveConfig();
 
-    // Cleanup managers and active games
-    if (gameStateManager.isGameActive()) {
-      gameStateManager.stopGame();
+    // Stop every arena's game and remove its mobs
+    for (Arena arena : arenas.values()) {
+      arena.shutdown();
     }
-    uiManager.cleanup();
+    arenas.clear();
     statsManager.saveStats();
-    creeperExplosionManager.cleanup();
 
+    bastionLog.shutdown();
     logger.info("Bastion plugin disabled successfully!");
   }
 
@@ -207,6 +297,24 @@ public final class Bastion extends JavaPlugin implements Listener {
       return false; // Cannot handle command without a sender
     }
     if (command.getName().equalsIgnoreCase("bastion")) {
+      if (args.length > 0 && args[0].equalsIgnoreCase("arena")) {
+        handleArenaCommand(sender, args);
+        return true;
+      }
+
+      Arena arena = arenaFor(sender);
+      // Game state belongs to the arena thread, which on Folia may not be the sender's
+      if (!arena.getTicker().isArenaThread()) {
+        arena.getTicker().execute(() -> onCommand(sender, command, label, args));
+        return true;
+      }
+      // Reflect whatever the command changes even if no game is ticking
+      arena.requestSnapshot();
+      GameStateManager gameStateManager = arena.getGameStateManager();
+      VillageManager villageManager = arena.getVillageManager();
+      BarrierManager barrierManager = arena.getBarrierManager();
+      MobSpawnManager mobSpawnManager = arena.getMobSpawnManager();
+
       if (args.length == 0) {
         sender.sendMessage("§6=== Bastion Commands ===");
         sender.sendMessage(
@@ -220,6 +328,7 @@ public final class Bastion extends JavaPlugin implements Listener {
         sender.sendMessage("§e/bastion stop §7- Stop the current game");
         sender.sendMessage("§e/bastion info §7- Show game status");
         if (sender.hasPermission("bastion.admin")) {
+          sender.sendMessage("§e/bastion arena <list|create|remove|select> [name] §7- Manage arenas");
           sender.sendMessage("§e/bastion pause §7- Pause the current game");
           sender.sendMessage("§e/bastion resume §7- Resume the paused game");
           sender.sendMessage("§e/bastion debug §7- Toggle debug mode");
@@ -250,13 +359,7 @@ public final class Bastion extends JavaPlugin implements Listener {
           if (villageLocation != null && villageManager.selectVillage(villageLocation)) {
             sender.sendMessage("§aVillage found and selected!");
             
-            // Teleport all online players to the village
-            for (Player onlinePlayer : getServer().getOnlinePlayers()) {
-              barrierManager.teleportToVillageCenter(onlinePlayer);
-            }
-            
-            // Announce to all players
-            getServer().broadcastMessage("§aAll players have been teleported to the selected village!");
+            teleportToArena(arena);
           } else {
             sender.sendMessage("§cNo valid village found nearby!");
           }
@@ -274,13 +377,7 @@ public final class Bastion extends JavaPlugin implements Listener {
           if (villageManager.selectVillage(currentPlayer.getLocation())) {
             sender.sendMessage("§aVillage selected at your current location!");
             
-            // Teleport all online players to the village
-            for (Player onlinePlayer : getServer().getOnlinePlayers()) {
-              barrierManager.teleportToVillageCenter(onlinePlayer);
-            }
-            
-            // Announce to all players
-            getServer().broadcastMessage("§aAll players have been teleported to the selected village!");
+            teleportToArena(arena);
           } else {
             sender.sendMessage("§cFailed to select village at your current location!");
           }
@@ -353,7 +450,6 @@ public final class Bastion extends JavaPlugin implements Listener {
           }
           
           gameStateManager.startGame();
-          statsManager.onGameStart();
           break;
         case "stop":
           if (!sender.hasPermission("bastion.stop")) {
@@ -361,7 +457,6 @@ public final class Bastion extends JavaPlugin implements Listener {
             return true;
           }
           gameStateManager.stopGame();
-          statsManager.onGameEnd();
           sender.sendMessage("§cGame stopped.");
           break;
         case "pause":
@@ -372,7 +467,7 @@ public final class Bastion extends JavaPlugin implements Listener {
           if (!gameStateManager.isPaused() && (gameStateManager.isGameActive() || gameStateManager.getCurrentState() == GameStateManager.GameState.PREPARING)) {
             gameStateManager.pauseGame();
             sender.sendMessage("§6Game paused.");
-            getServer().broadcastMessage("§6Game has been paused by an admin.");
+            gameStateManager.broadcast("§6Game has been paused by an admin.");
           } else if (gameStateManager.isPaused()) {
             sender.sendMessage("§eGame is already paused.");
           } else {
@@ -387,7 +482,7 @@ public final class Bastion extends JavaPlugin implements Listener {
           if (gameStateManager.isPaused()) {
             gameStateManager.resumeGame();
             sender.sendMessage("§aGame resumed.");
-            getServer().broadcastMessage("§aGame has been resumed by an admin.");
+            gameStateManager.broadcast("§aGame has been resumed by an admin.");
           } else {
             sender.sendMessage("§cGame is not paused.");
           }
@@ -403,17 +498,17 @@ public final class Bastion extends JavaPlugin implements Listener {
             sender.sendMessage("§cThis command can only be used by players!");
             return true;
           }
-          handleUpgradeCommand((Player) sender, args[1], args[2]);
+          handleUpgradeCommand(arena.getUpgradeManager(), (Player) sender, args[1], args[2]);
           break;
         case "upgrades":
           if (!(sender instanceof Player)) {
             sender.sendMessage("§cThis command can only be used by players!");
             return true;
           }
-          showUpgrades((Player) sender);
+          showUpgrades(arena.getUpgradeManager(), (Player) sender);
           break;
         case "info":
-          showGameStatus(sender);
+          showGameStatus(arena, sender);
           break;
         case "debug":
           if (!sender.hasPermission("bastion.admin")) {
@@ -457,71 +552,103 @@ public final class Bastion extends JavaPlugin implements Listener {
   @EventHandler
   public void onPlayerJoin(PlayerJoinEvent event) {
     Player player = event.getPlayer();
-    if (gameStateManager.isGameActive()) {
-      uiManager.addPlayer(player);
-      player.sendMessage("§6A village defense game is currently in progress!");
-      player.sendMessage(
-        "§eGame State: " + gameStateManager.getCurrentState().getMessage()
-      );
+    for (Arena arena : arenas.values()) {
+      arena.getTicker().execute(() -> {
+        GameStateManager gameStateManager = arena.getGameStateManager();
+        if (gameStateManager.isGameActive() && arena.contains(player.getLocation())) {
+          arena.getUIManager().addPlayer(player);
+          player.sendMessage("§6A village defense game is currently in progress!");
+          player.sendMessage(
+            "§eGame State: " + gameStateManager.getCurrentState().getMessage()
+          );
+        }
+      });
     }
   }
 
-  @EventHandler
-  public void onEntityDamage(EntityDamageByEntityEvent event) {
-    if (!gameStateManager.isGameActive()) return;
-
-    // Handle player damage upgrades
-    if (event.getDamager() instanceof Player) {
-      Player player = (Player) event.getDamager();
-      int damageLevel = upgradeManager.getPlayerUpgradeLevel(
-        player,
-        UpgradeManager.UpgradeType.DAMAGE_BOOST
-      );
-      if (damageLevel > 0) {
-        event.setDamage(event.getDamage() * (1 + (damageLevel * 0.2))); // 20% increase per level
-      }
-    }
-
-    // Handle protection upgrades for players
-    if (event.getEntity() instanceof Player) {
-      Player player = (Player) event.getEntity();
-      int protectionLevel = upgradeManager.getPlayerUpgradeLevel(
-        player,
-        UpgradeManager.UpgradeType.PROTECTION
-      );
-      if (protectionLevel > 0) {
-        event.setDamage(event.getDamage() * (1 - (protectionLevel * 0.1))); // 10% reduction per level
+  /**
+   * Teleports every online player who is not playing in another arena to the
+   * arena's village.
+   */
+  private void teleportToArena(Arena arena) {
+    for (Player onlinePlayer : getServer().getOnlinePlayers()) {
+      if (!isPlayingElsewhere(onlinePlayer, arena)) {
+        arena.getBarrierManager().teleportToVillageCenter(onlinePlayer);
+        // Tell only the teleported players, games in other arenas carry on
+        onlinePlayer.sendMessage("§aYou have been teleported to the selected village!");
       }
     }
+  }
 
-    // Handle barrier protection for villagers
-    if (event.getEntity() instanceof org.bukkit.entity.Villager) {
-      double reduction = villageManager.getBarrierDamageReduction();
-      if (reduction > 0) {
-        event.setDamage(event.getDamage() * (1 - reduction));
+  private boolean isPlayingElsewhere(Player player, Arena arena) {
+    for (Arena other : arenas.values()) {
+      if (other != arena && other.getGameStateManager().getActivePlayers().containsKey(player.getUniqueId())) {
+        return true;
       }
     }
+    return false;
   }
 
-  private void stopWave() {
-    waveManager.stopWave();
-    mobSpawnManager.stopSpawning();
-    Bukkit.broadcastMessage("§cWave stopped!");
-  }
-
-  @EventHandler
-  public void onEntityDamageByEntity(EntityDamageByEntityEvent event) {
-    if (!gameStateManager.isGameActive() || !waveManager.isWaveActive()) {
+  /**
+   * Handles /bastion arena, which only touches the arena list and so runs on the
+   * sender's thread.
+   */
+  private void handleArenaCommand(CommandSender sender, String[] args) {
+    if (!sender.hasPermission("bastion.admin")) {
+      sender.sendMessage("§cYou don't have permission to manage arenas!");
+      return;
+    }
+    String action = args.length > 1 ? args[1].toLowerCase() : "list";
+    if (!action.equals("list") && args.length < 3) {
+      sender.sendMessage("§cUsage: /bastion arena <list|create|remove|select> [name]");
       return;
     }
 
-    // Note: Mob kill tracking is handled in onMobDeath() method to prevent double counting
+    switch (action) {
+      case "list":
+        sender.sendMessage("§6=== Bastion Arenas ===");
+        for (Arena arena : arenas.values()) {
+          sender.sendMessage(
+            "§e" + arena.getName() + " §7- " +
+            (arena.getVillageManager().getVillageCenter().isPresent() ? "village selected" : "no village") +
+            ", " + arena.getGameStateManager().getCurrentState().getMessage()
+          );
+        }
+        break;
+      case "create":
+        if (createArena(args[2]) == null) {
+          sender.sendMessage("§cAn arena named " + args[2] + " already exists!");
+          return;
+        }
+        selectedArenas.put(sender.getName(), args[2]);
+        sender.sendMessage("§aArena " + args[2] + " created and selected. Use /bastion findvillage to set it up.");
+        break;
+      case "remove":
+        if (!removeArena(args[2])) {
+          sender.sendMessage("§cNo removable arena named " + args[2] + "!");
+          return;
+        }
+        sender.sendMessage("§cArena " + args[2] + " removed.");
+        break;
+      case "select":
+        if (!arenas.containsKey(args[2])) {
+          sender.sendMessage("§cNo arena named " + args[2] + "!");
+          return;
+        }
+        selectedArenas.put(sender.getName(), args[2]);
+        sender.sendMessage("§aArena " + args[2] + " selected.");
+        break;
+      default:
+        sender.sendMessage("§cUsage: /bastion arena <list|create|remove|select> [name]");
+        break;
+    }
   }
 
   /**
    * Handles the upgrade command
    */
   private void handleUpgradeCommand(
+    UpgradeManager upgradeManager,
     Player player,
     String type,
     String upgradeName
@@ -556,14 +683,18 @@ public final class Bastion extends JavaPlugin implements Listener {
   /**
    * Shows detailed game status
    */
-  private void showGameStatus(CommandSender sender) {
+  private void showGameStatus(Arena arena, CommandSender sender) {
+    GameStateManager gameStateManager = arena.getGameStateManager();
+    VillageManager villageManager = arena.getVillageManager();
+    WaveManager waveManager = arena.getWaveManager();
     sender.sendMessage("§6=== Bastion Status ===");
+    sender.sendMessage("§7Arena: §f" + arena.getName());
     sender.sendMessage(
       "§7Village Selected: §f" +
       (villageManager.getVillageCenter().isPresent() ? "Yes" : "No")
     );
     sender.sendMessage(
-      "§7Barrier Active: §f" + (barrierManager.isActive() ? "Yes" : "No")
+      "§7Barrier Active: §f" + (arena.getBarrierManager().isActive() ? "Yes" : "No")
     );
     sender.sendMessage(
       "§7Game State: §f" + gameStateManager.getCurrentState().getMessage()
@@ -587,7 +718,7 @@ public final class Bastion extends JavaPlugin implements Listener {
       );
       sender.sendMessage(
         "§7Total Kills: §f" +
-        statsManager.getCurrentGameStats().getTotalMobsKilled()
+        arena.getGameStats().getTotalMobsKilled()
       );
       
       if (waveManager.isWaveActive() && !gameStateManager.isPaused()) {
@@ -604,7 +735,7 @@ public final class Bastion extends JavaPlugin implements Listener {
   /**
    * Shows available upgrades and their costs
    */
-  private void showUpgrades(Player player) {
+  private void showUpgrades(UpgradeManager upgradeManager, Player player) {
     player.sendMessage("§6=== Available Upgrades ===");
     player.sendMessage("§ePlayer Upgrades:");
     for (UpgradeManager.UpgradeType upgrade : UpgradeManager.UpgradeType.values()) {
@@ -0,0 +1,126 @@
+package city.emerald.bastion;
+
+/**
+ * Immutable, typed snapshot of the configuration values read while a game runs.
+ * Compiled once per load, reload or {@code /bastionconfig set} and swapped in as a
+ * whole, so hot paths read plain fields instead of looking up and parsing YAML.
+ * Each arena re-applies the snapshot to its ticker, spawning and mob AI when it
+ * changes. Settings read only while a manager is constructed keep using the safe
+ * getters.
+ */
+public final class BastionConfig {
+
+  // Game
+  public final int maxWaves;
+
+  // Wave timing
+  public final long preparationDelaySeconds;
+  public final long completionDelaySeconds;
+  public final int waveDurationSeconds;
+
+  // Spawning
+  public final boolean prestageEnabled;
+  public final int prestageSpawnsPerTick;
+  public final int cleanupBatchSize;
+  public final boolean disableCollisionsInCrowds;
+  public final int crowdThreshold;
+  public final int spawnSectors;
+  public final int maxSpawnsPerChunk;
+  public final int maxSpawnsPerSector;
+  public final double spawnSectorSlack;
+  public final double startingAverageDifficulty;
+  public final double averageDifficultyIncreasePercent;
+
+  // Mob AI
+  public final int creeperVisionRadius;
+  public final double playerTargetWeight;
+  public final double villagerTargetWeight;
+  public final double targetSwitchChance;
+  public final double maxTargetDistance;
+  public final long scanIntervalTicks;
+  public final double targetGridCellSize;
+  public final int updateBuckets;
+  public final int maxUpdatesPerTick;
+  public final long lineOfSightCacheTicks;
+  public final boolean flowFieldEnabled;
+  public final double flowFieldFollowDistance;
+  public final int flowFieldWaypointDistance;
+
+  // Pathing
+  public final int pathMinIntervalTicks;
+  public final double pathReuseDistance;
+  public final int pathBudgetPerTick;
+
+  // Ticker, per phase in phase order
+  private final double[] phaseBudgetMillis;
+
+  // Village
+  public final int barrierRadius;
+
+  // Loot
+  public final double lootWaveScalingBase;
+
+  private BastionConfig(Bastion plugin) {
+    this.maxWaves = plugin.getIntSafe("max_waves", 30);
+
+    this.preparationDelaySeconds = plugin.getLongSafe("wave.preparation_delay_seconds", 10L);
+    this.completionDelaySeconds = plugin.getLongSafe("wave.completion_delay_seconds", 10L);
+    this.waveDurationSeconds = plugin.getIntSafe("wave.wave_duration_seconds", 300);
+
+    this.prestageEnabled = plugin.getBooleanSafe("wave.prestage.enabled", false);
+    this.prestageSpawnsPerTick = Math.max(1, plugin.getIntSafe("wave.prestage.spawns_per_tick", 4));
+    this.cleanupBatchSize = Math.max(1, plugin.getIntSafe("wave.cleanup.batch_size", 25));
+    this.disableCollisionsInCrowds = plugin.getBooleanSafe("wave.spawn.disable_collisions_in_crowds", true);
+    this.crowdThreshold = plugin.getIntSafe("wave.spawn.crowd_threshold", 4);
+    this.spawnSectors = plugin.getIntSafe("wave.spawn.sectors", 16);
+    this.maxSpawnsPerChunk = plugin.getIntSafe("wave.spawn.max_per_chunk", 8);
+    this.maxSpawnsPerSector = plugin.getIntSafe("wave.spawn.max_per_sector", 0);
+    this.spawnSectorSlack = plugin.getDoubleSafe("wave.spawn.sector_slack", 1.5);
+    this.startingAverageDifficulty = plugin.getDoubleSafe("wave.difficulty_scaling.starting_average_difficulty", 1.0);
+    this.averageDifficultyIncreasePercent =
+      plugin.getDoubleSafe("wave.difficulty_scaling.average_difficulty_increase_percent", 5.0);
+
+    this.creeperVisionRadius = plugin.getIntSafe("mob_ai.creeper_vision_radius", 10);
+    this.playerTargetWeight = plugin.getDoubleSafe("mob_ai.player_target_weight", 0.7);
+    this.villagerTargetWeight = plugin.getDoubleSafe("mob_ai.villager_target_weight", 0.3);
+    this.targetSwitchChance = plugin.getDoubleSafe("mob_ai.target_switch_chance", 0.1);
+    this.maxTargetDistance = plugin.getDoubleSafe("mob_ai.max_target_distance", 50.0);
+    this.scanIntervalTicks = Math.max(1L, plugin.getLongSafe("mob_ai.scan_interval_ticks", 100));
+    this.targetGridCellSize = plugin.getDoubleSafe("mob_ai.target_grid_cell_size", 16.0);
+    this.updateBuckets = Math.max(1, plugin.getIntSafe("mob_ai.update_buckets", 20));
+    this.maxUpdatesPerTick = plugin.getIntSafe("mob_ai.max_updates_per_tick", 16);
+    this.lineOfSightCacheTicks = Math.max(0, plugin.getLongSafe("mob_ai.line_of_sight_cache_ticks", 40));
+    this.flowFieldEnabled = plugin.getBooleanSafe("mob_ai.flow_field_enabled", true);
+    this.flowFieldFollowDistance = plugin.getDoubleSafe("mob_ai.flow_field_follow_distance", 24.0);
+    this.flowFieldWaypointDistance = Math.max(1, plugin.getIntSafe("mob_ai.flow_field_waypoint_distance", 8));
+
+    this.pathMinIntervalTicks = Math.max(0, plugin.getIntSafe("mob_ai.path_min_interval_ticks", 20));
+    this.pathReuseDistance = plugin.getDoubleSafe("mob_ai.path_reuse_distance", 2.0);
+    this.pathBudgetPerTick = plugin.getIntSafe("mob_ai.path_budget_per_tick", 8);
+
+    BastionTicker.Phase[] phases = BastionTicker.Phase.values();
+    this.phaseBudgetMillis = new double[phases.length];
+    for (BastionTicker.Phase phase : phases) {
+      double millis = plugin.getDoubleSafe("ticker.budget_ms." + phase.getConfigKey(), phase.getDefaultBudgetMillis());
+      phaseBudgetMillis[phase.ordinal()] = Math.max(0.0, millis);
+    }
+
+    this.barrierRadius = plugin.getIntSafe("village.barrier.radius", 80);
+
+    this.lootWaveScalingBase = plugin.getDoubleSafe("loot_table_settings.wave_scaling_base", 0.05);
+  }
+
+  /**
+   * Gets the time a ticker phase may spend on deferred work per tick, in milliseconds.
+   */
+  public double getBudgetMillis(BastionTicker.Phase phase) {
+    return phaseBudgetMillis[phase.ordinal()];
+  }
+
+  /**
+   * Compiles the plugin's current configuration into a new snapshot.
+   */
+  static BastionConfig compile(Bastion plugin) {
+    return new BastionConfig(plugin);
+  }
+}
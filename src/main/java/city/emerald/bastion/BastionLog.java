@@ -0,0 +1,162 @@
+package city.emerald.bastion;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Logging facade for hot paths. Debug output is grouped into categories that are
+ * toggled under {@code logging.*} in config.yml; a disabled category returns before
+ * any message is formatted. Enabled messages are formatted and written on a single
+ * background thread so the main thread never blocks on the log writer.
+ */
+public final class BastionLog {
+
+  public enum Category {
+    SPAWN("spawn"),
+    COMPOSITION("composition"),
+    AI("ai"),
+    CLEANUP("cleanup");
+
+    private final String configKey;
+
+    Category(String configKey) {
+      this.configKey = configKey;
+    }
+
+    public String getConfigKey() {
+      return configKey;
+    }
+  }
+
+  private static final int QUEUE_CAPACITY = 4096;
+
+  private final Logger logger;
+  private final ThreadPoolExecutor writer;
+  private final AtomicLong droppedMessages;
+  private volatile boolean[] enabled;
+
+  public BastionLog(Logger logger) {
+    this.logger = logger;
+    this.droppedMessages = new AtomicLong();
+    this.enabled = new boolean[Category.values().length];
+    this.writer = new ThreadPoolExecutor(
+      1,
+      1,
+      0L,
+      TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+      runnable -> {
+        Thread thread = new Thread(runnable, "Bastion-Log");
+        thread.setDaemon(true);
+        return thread;
+      },
+      (runnable, executor) -> droppedMessages.incrementAndGet()
+    );
+  }
+
+  /**
+   * Re-reads which debug categories are enabled.
+   * @param plugin The plugin to read the configuration from
+   */
+  public void reload(Bastion plugin) {
+    boolean[] updated = new boolean[Category.values().length];
+    for (Category category : Category.values()) {
+      updated[category.ordinal()] =
+        plugin.getBooleanSafe("logging." + category.getConfigKey(), false);
+    }
+    this.enabled = updated;
+  }
+
+  /**
+   * Checks whether a debug category is enabled. Guard expensive argument
+   * construction with this in per-entity loops.
+   */
+  public boolean isEnabled(Category category) {
+    return enabled[category.ordinal()];
+  }
+
+  public void debug(Category category, String message) {
+    if (isEnabled(category)) {
+      write(Level.INFO, message);
+    }
+  }
+
+  public void debug(Category category, String format, Object arg) {
+    if (isEnabled(category)) {
+      submit(Level.INFO, format, new Object[] { arg });
+    }
+  }
+
+  public void debug(Category category, String format, Object arg1, Object arg2) {
+    if (isEnabled(category)) {
+      submit(Level.INFO, format, new Object[] { arg1, arg2 });
+    }
+  }
+
+  public void debug(Category category, String format, Object... args) {
+    if (isEnabled(category)) {
+      submit(Level.INFO, format, args);
+    }
+  }
+
+  /**
+   * Writes an always-on info message asynchronously.
+   */
+  public void info(String message) {
+    write(Level.INFO, message);
+  }
+
+  /**
+   * Writes an info message whose text is built lazily on the writer thread.
+   * The supplied object must not be modified after it is handed over.
+   */
+  public void info(Object message) {
+    submit(Level.INFO, "%s", new Object[] { message });
+  }
+
+  public void warning(String message) {
+    write(Level.WARNING, message);
+  }
+
+  private void write(Level level, String message) {
+    execute(() -> logger.log(level, message));
+  }
+
+  private void submit(Level level, String format, Object[] args) {
+    execute(() -> logger.log(level, String.format(format, args)));
+  }
+
+  private void execute(Runnable task) {
+    if (writer.isShutdown()) {
+      task.run();
+      return;
+    }
+    // A full queue counts the message as dropped instead of blocking the caller
+    writer.execute(() -> {
+      long dropped = droppedMessages.getAndSet(0);
+      if (dropped > 0) {
+        logger.warning("Log queue overflowed, dropped " + dropped + " messages");
+      }
+      task.run();
+    });
+  }
+
+  /**
+   * Flushes pending messages and stops the writer thread.
+   */
+  public void shutdown() {
+    writer.shutdown();
+    try {
+      if (!writer.awaitTermination(2, TimeUnit.SECONDS)) {
+        writer.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      writer.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+}
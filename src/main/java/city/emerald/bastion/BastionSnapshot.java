@@ -0,0 +1,96 @@
+package city.emerald.bastion;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.bukkit.Location;
+
+import city.emerald.bastion.economy.UpgradeManager;
+import city.emerald.bastion.game.GameStateManager;
+import city.emerald.bastion.wave.WaveManager;
+
+/**
+ * Immutable view of one arena's game state. Each arena builds one at the end of
+ * every tick its ticker runs and publishes it through a volatile reference, so other
+ * plugins and async work can read consistent state from any thread without locks. Read it through {@link Bastion#getSnapshot(String)}.
+ *
+ * @param arena The arena's name
+ * @param tick The arena ticker's tick the snapshot was built on
+ * @param state The game state
+ * @param paused Whether the game is paused
+ * @param wave The current wave number
+ * @param waveState The state of the current wave
+ * @param aliveMobs Wave mobs still alive
+ * @param totalMobs Mobs the current wave was planned with
+ * @param villagers Villagers under protection
+ * @param remainingSeconds Time left in the active wave, 0 when no wave is running
+ * @param participants Players taking part in the game
+ * @param playerUpgrades Upgrade levels by player
+ * @param villageUpgrades Upgrade levels of the village
+ */
+public record BastionSnapshot(
+  String arena,
+  long tick,
+  GameStateManager.GameState state,
+  boolean paused,
+  int wave,
+  WaveManager.WaveState waveState,
+  int aliveMobs,
+  int totalMobs,
+  int villagers,
+  long remainingSeconds,
+  Set<UUID> participants,
+  Map<UUID, Map<UpgradeManager.UpgradeType, Integer>> playerUpgrades,
+  Map<UpgradeManager.UpgradeType, Integer> villageUpgrades
+) {
+
+  /**
+   * Builds a snapshot of the arena's current state. Arena thread only.
+   * @param previous The last published snapshot, whose upgrade maps are reused while
+   *                 the upgrades are unchanged, or null
+   * @param previousUpgradeVersion The upgrade version {@code previous} was built with
+   * @param previousVillage The village center {@code previous} was built with
+   */
+  static BastionSnapshot capture(
+    Arena arena,
+    BastionSnapshot previous,
+    long previousUpgradeVersion,
+    Location previousVillage
+  ) {
+    GameStateManager gameStateManager = arena.getGameStateManager();
+    WaveManager waveManager = arena.getWaveManager();
+    VillageManager villageManager = arena.getVillageManager();
+    UpgradeManager upgradeManager = arena.getUpgradeManager();
+
+    Map<UUID, Map<UpgradeManager.UpgradeType, Integer>> playerUpgrades;
+    Map<UpgradeManager.UpgradeType, Integer> villageUpgrades;
+    boolean upgradesChanged = previous == null ||
+      previousUpgradeVersion != upgradeManager.getVersion() ||
+      previousVillage != villageManager.getVillageCenter().orElse(null);
+    if (upgradesChanged) {
+      playerUpgrades = upgradeManager.copyPlayerUpgrades();
+      villageUpgrades = Map.copyOf(upgradeManager.getVillageUpgrades());
+    } else {
+      playerUpgrades = previous.playerUpgrades();
+      villageUpgrades = previous.villageUpgrades();
+    }
+
+    boolean waveRunning = waveManager.isWaveActive();
+    return new BastionSnapshot(
+      arena.getName(),
+      arena.getTicker().getCurrentTick(),
+      gameStateManager.getCurrentState(),
+      gameStateManager.isPaused(),
+      waveManager.getCurrentWave(),
+      waveManager.getWaveState(),
+      waveManager.getRemainingMobs(),
+      waveRunning ? waveManager.getTotalMobs() : 0,
+      villageManager.getRegisteredVillagerCount(),
+      waveRunning ? Math.max(0L, waveManager.getRemainingTime()) : 0L,
+      gameStateManager.getParticipantIds(),
+      playerUpgrades,
+      villageUpgrades
+    );
+  }
+}
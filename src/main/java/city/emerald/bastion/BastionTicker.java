@@ -0,0 +1,383 @@
+package city.emerald.bastion;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+
+/**
+ * The single task that drives all of an arena's periodic and delayed work.
+ * Every tick runs the phases in order; within a phase, due jobs run first and the
+ * phase's deferred work then drains until its time budget
+ * ({@code ticker.budget_ms.<phase>}) is used up, carrying the rest over to the next
+ * tick. Started and stopped with its arena, so no job outlives it. The underlying
+ * scheduler task only exists while there is work: it is created when a job or
+ * deferred work is added and cancelled once every queue is empty, so an idle lobby
+ * costs nothing per tick.
+ *
+ * The driver runs on the region scheduler at the arena's anchor (the village
+ * center), so on Folia every job runs on the thread that owns the arena's blocks
+ * and entities; before a village is selected it runs on the global region. On Paper both are
+ * the main thread. The ticker's state belongs to that thread: code that may run
+ * elsewhere, such as event handlers, commands and async completions, hops over
+ * with {@link #execute(Runnable)}, and per-entity work outside the arena region
+ * goes through {@link #runFor(Entity, Runnable)}.
+ */
+public final class BastionTicker {
+
+  // Folia ticks regions in parallel, so arenas in different regions do not share a thread
+  private static final boolean REGIONIZED = hasClass("io.papermc.paper.threadedregions.RegionizedServer");
+
+  /**
+   * Tick phases, in the order they run.
+   */
+  public enum Phase {
+    AI("ai", 8.0),
+    SPAWN("spawn", 5.0),
+    COMBAT("combat", 3.0),
+    UI("ui", 2.0),
+    COSMETICS("cosmetics", 2.0);
+
+    private final String configKey;
+    private final double defaultBudgetMillis;
+
+    Phase(String configKey, double defaultBudgetMillis) {
+      this.configKey = configKey;
+      this.defaultBudgetMillis = defaultBudgetMillis;
+    }
+
+    String getConfigKey() {
+      return configKey;
+    }
+
+    double getDefaultBudgetMillis() {
+      return defaultBudgetMillis;
+    }
+  }
+
+  /**
+   * A scheduled job; cancelling it takes effect before its next run.
+   */
+  public static final class Task {
+    private final Runnable action;
+    private final long interval;
+    private long nextRunTick;
+    private boolean cancelled;
+
+    private Task(Runnable action, long nextRunTick, long interval) {
+      this.action = action;
+      this.nextRunTick = nextRunTick;
+      this.interval = interval;
+    }
+
+    public void cancel() {
+      cancelled = true;
+    }
+
+    public boolean isCancelled() {
+      return cancelled;
+    }
+  }
+
+  private final Bastion plugin;
+  private final List<List<Task>> jobs;
+  private final List<Deque<BooleanSupplier>> deferred;
+  private final long[] budgetNanos;
+  private int budgetShare = 1;
+  private ScheduledTask driver;
+  private boolean enabled;
+  // Region the driver runs in; null drives from the global region
+  private volatile Location anchor;
+  private long currentTick;
+  private Runnable tickEndHook;
+  private long phaseDeadline;
+
+  public BastionTicker(Bastion plugin) {
+    this.plugin = plugin;
+    this.jobs = new ArrayList<>();
+    this.deferred = new ArrayList<>();
+    for (int i = 0; i < Phase.values().length; i++) {
+      jobs.add(new ArrayList<>());
+      deferred.add(new ArrayDeque<>());
+    }
+    this.budgetNanos = new long[Phase.values().length];
+    reloadBudgets();
+  }
+
+  /**
+   * Re-reads the per-phase time budgets from the current configuration snapshot.
+   */
+  public void reloadBudgets() {
+    BastionConfig settings = plugin.getSettings();
+    for (Phase phase : Phase.values()) {
+      budgetNanos[phase.ordinal()] = (long) (settings.getBudgetMillis(phase) * 1_000_000L / budgetShare);
+    }
+  }
+
+  /**
+   * Gives this ticker one of {@code shares} equal parts of the configured budgets,
+   * for tickers that share the main thread with others. Ignored on Folia, where
+   * each arena's region has a thread of its own.
+   */
+  public void setBudgetShare(int shares) {
+    int share = REGIONIZED ? 1 : Math.max(1, shares);
+    if (share != budgetShare) {
+      budgetShare = share;
+      reloadBudgets();
+    }
+  }
+
+  public void start() {
+    enabled = true;
+    if (!isIdle()) {
+      ensureDriver();
+    }
+  }
+
+  /**
+   * Stops driving and drops every job and all deferred work.
+   */
+  public void stop() {
+    enabled = false;
+    cancelDriver();
+    for (int i = 0; i < jobs.size(); i++) {
+      for (Task task : jobs.get(i)) {
+        task.cancel();
+      }
+      jobs.get(i).clear();
+      deferred.get(i).clear();
+    }
+  }
+
+  /**
+   * Moves the ticker to the region that owns {@code location}, or back to the global
+   * region when null. Call on the arena thread.
+   */
+  public void setAnchor(Location location) {
+    anchor = location == null ? null : location.clone();
+    if (driver != null) {
+      cancelDriver();
+      ensureDriver();
+    }
+  }
+
+  /**
+   * Checks whether the caller runs on the thread that owns the ticker and the arena.
+   */
+  public boolean isArenaThread() {
+    Location at = anchor;
+    return at == null ? Bukkit.isGlobalTickThread() : Bukkit.isOwnedByCurrentRegion(at);
+  }
+
+  /**
+   * Runs {@code action} on the arena thread, right away when already there and
+   * otherwise on the arena region's next tick. Safe to call from any thread.
+   */
+  public void execute(Runnable action) {
+    if (isArenaThread()) {
+      action.run();
+      return;
+    }
+    Location at = anchor;
+    if (at == null) {
+      Bukkit.getGlobalRegionScheduler().execute(plugin, action);
+    } else {
+      Bukkit.getRegionScheduler().execute(plugin, at, action);
+    }
+  }
+
+  /**
+   * Runs {@code action} on the thread that owns {@code entity}, right away when that
+   * is the caller's and otherwise on the entity's next tick. Dropped if the entity
+   * is removed first.
+   */
+  public void runFor(Entity entity, Runnable action) {
+    runFor(entity, action, null);
+  }
+
+  /**
+   * Runs {@code action} like {@link #runFor(Entity, Runnable)}, calling
+   * {@code retired} instead if the entity is removed first.
+   */
+  public void runFor(Entity entity, Runnable action, Runnable retired) {
+    if (Bukkit.isOwnedByCurrentRegion(entity)) {
+      action.run();
+    } else if (entity.getScheduler().run(plugin, task -> action.run(), retired) == null && retired != null) {
+      retired.run();
+    }
+  }
+
+  /**
+   * Checks whether the server ticks regions in parallel (Folia), where per-player
+   * scoreboards and other global state are unavailable.
+   */
+  public static boolean isRegionized() {
+    return REGIONIZED;
+  }
+
+  /**
+   * Runs {@code action} in {@code phase} every {@code interval} ticks, first after {@code delay}.
+   */
+  public Task runTimer(Phase phase, long delay, long interval, Runnable action) {
+    Task task = new Task(action, currentTick + Math.max(1L, delay), Math.max(1L, interval));
+    jobs.get(phase.ordinal()).add(task);
+    ensureDriver();
+    return task;
+  }
+
+  /**
+   * Runs {@code action} once in {@code phase} after {@code delay} ticks.
+   */
+  public Task runLater(Phase phase, long delay, Runnable action) {
+    Task task = new Task(action, currentTick + Math.max(1L, delay), 0L);
+    jobs.get(phase.ordinal()).add(task);
+    ensureDriver();
+    return task;
+  }
+
+  /**
+   * Queues work that runs within the phase's leftover budget, starting this tick if
+   * the phase has not run yet. The work is called again on later ticks until it
+   * returns true. The head of the queue runs every tick even over budget, so
+   * deferred work always progresses.
+   */
+  public void defer(Phase phase, BooleanSupplier work) {
+    deferred.get(phase.ordinal()).addLast(work);
+    ensureDriver();
+  }
+
+  /**
+   * Sets work that runs once after the last phase of every tick the ticker runs.
+   */
+  public void setTickEndHook(Runnable hook) {
+    this.tickEndHook = hook;
+  }
+
+  /**
+   * Gets the number of ticks the ticker has run. Stands still while it is idle.
+   */
+  public long getCurrentTick() {
+    return currentTick;
+  }
+
+  /**
+   * Checks whether the running phase still has time left, for jobs that can stop
+   * early and continue on their next run.
+   */
+  public boolean hasBudget() {
+    return System.nanoTime() < phaseDeadline;
+  }
+
+  private void tick() {
+    currentTick++;
+    for (Phase phase : Phase.values()) {
+      int index = phase.ordinal();
+      phaseDeadline = System.nanoTime() + budgetNanos[index];
+      runDueJobs(jobs.get(index));
+      drainDeferred(deferred.get(index));
+    }
+    if (tickEndHook != null) {
+      try {
+        tickEndHook.run();
+      } catch (RuntimeException e) {
+        plugin.getLogger().log(Level.SEVERE, "Error in tick end hook", e);
+      }
+    }
+    if (isIdle()) {
+      cancelDriver();
+    }
+  }
+
+  private void ensureDriver() {
+    if (enabled && driver == null) {
+      Location at = anchor;
+      driver = at == null
+        ? Bukkit.getGlobalRegionScheduler().runAtFixedRate(plugin, task -> tick(), 1L, 1L)
+        : Bukkit.getRegionScheduler().runAtFixedRate(plugin, at, task -> tick(), 1L, 1L);
+    }
+  }
+
+  private void cancelDriver() {
+    if (driver != null) {
+      driver.cancel();
+      driver = null;
+    }
+  }
+
+  private static boolean hasClass(String name) {
+    try {
+      Class.forName(name);
+      return true;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  private boolean isIdle() {
+    for (int i = 0; i < jobs.size(); i++) {
+      if (!jobs.get(i).isEmpty() || !deferred.get(i).isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void runDueJobs(List<Task> phaseJobs) {
+    // Jobs scheduled while running are appended and first due on a later tick
+    int count = phaseJobs.size();
+    boolean finished = false;
+    for (int i = 0; i < count; i++) {
+      Task task = phaseJobs.get(i);
+      if (task.cancelled) {
+        finished = true;
+        continue;
+      }
+      if (task.nextRunTick > currentTick) {
+        continue;
+      }
+      if (task.interval == 0) {
+        task.cancelled = true;
+      } else {
+        task.nextRunTick = currentTick + task.interval;
+      }
+      try {
+        task.action.run();
+      } catch (RuntimeException e) {
+        // One failing job must not stop the others, as with separate scheduler tasks
+        plugin.getLogger().log(Level.SEVERE, "Error in scheduled task", e);
+      }
+      finished |= task.cancelled;
+    }
+    if (finished) {
+      phaseJobs.removeIf(Task::isCancelled);
+    }
+  }
+
+  private void drainDeferred(Deque<BooleanSupplier> queue) {
+    int count = queue.size();
+    for (int i = 0; i < count; i++) {
+      BooleanSupplier work = queue.pollFirst();
+      boolean done;
+      try {
+        done = work.getAsBoolean();
+      } catch (RuntimeException e) {
+        plugin.getLogger().log(Level.SEVERE, "Error in deferred task", e);
+        done = true;
+      }
+      if (!done) {
+        queue.addLast(work);
+      }
+      if (!hasBudget()) {
+        break;
+      }
+    }
+  }
+}
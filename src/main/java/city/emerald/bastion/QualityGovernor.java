@@ -0,0 +1,128 @@
+package city.emerald.bastion;
+
+import org.bukkit.Bukkit;
+
+/**
+ * Scales cosmetic work down while the server is overloaded, so mob AI, spawning and
+ * combat keep their tick time. Paper's average tick time (MSPT) is sampled at most
+ * once per {@code quality_governor.sample_interval_ms}, on whichever thread asks
+ * first; quality drops a level for every threshold under {@code quality_governor.*}
+ * that MSPT reaches and recovers one level per sample once MSPT falls back below a
+ * threshold by the recovery margin. Safe to call from any thread.
+ */
+public final class QualityGovernor {
+
+  /**
+   * Cosmetic quality levels, from full to the least the cosmetics fall back to.
+   */
+  public enum Quality {
+    FULL("full"),
+    REDUCED("reduced"),
+    LOW("low"),
+    MINIMAL("minimal");
+
+    private final String configKey;
+
+    Quality(String configKey) {
+      this.configKey = configKey;
+    }
+
+    /**
+     * Scales down a per-location particle count, keeping at least one particle.
+     */
+    public int scaleIntensity(int configured) {
+      return Math.max(1, configured - ordinal());
+    }
+
+    /**
+     * Scales up the spacing between particles, doubling it per level.
+     */
+    public int scaleSpacing(int configured) {
+      return Math.max(1, configured) << ordinal();
+    }
+
+    /**
+     * Gets how many runs of a periodic cosmetic job to skip per run that does its
+     * work, plus one; doubles per level.
+     */
+    public int getIntervalMultiplier() {
+      return 1 << ordinal();
+    }
+  }
+
+  private final Bastion plugin;
+  private volatile boolean enabled;
+  // Thresholds in milliseconds, indexed by the quality they lead to minus one
+  private volatile double[] thresholds;
+  private volatile double recoveryMargin;
+  private volatile long sampleIntervalNanos;
+  private volatile long nextSampleNanos;
+  private volatile Quality quality = Quality.FULL;
+
+  public QualityGovernor(Bastion plugin) {
+    this.plugin = plugin;
+    reload();
+  }
+
+  /**
+   * Re-reads the thresholds. Quality returns to full when the governor is disabled.
+   */
+  public void reload() {
+    double[] updated = new double[Quality.values().length - 1];
+    double previous = 0.0;
+    for (int i = 0; i < updated.length; i++) {
+      Quality level = Quality.values()[i + 1];
+      double defaultMillis = 40.0 + 5.0 * i;
+      double millis = plugin.getDoubleSafe("quality_governor." + level.configKey + "_mspt", defaultMillis);
+      // Keep the thresholds ascending so levels are reached in order
+      updated[i] = Math.max(previous, millis);
+      previous = updated[i];
+    }
+    this.thresholds = updated;
+    this.recoveryMargin = Math.max(0.0, plugin.getDoubleSafe("quality_governor.recovery_margin_ms", 3.0));
+    this.sampleIntervalNanos = Math.max(50L, plugin.getLongSafe("quality_governor.sample_interval_ms", 1000L)) * 1_000_000L;
+    this.enabled = plugin.getBooleanSafe("quality_governor.enabled", true);
+    this.nextSampleNanos = 0L;
+    if (!enabled) {
+      quality = Quality.FULL;
+    }
+  }
+
+  /**
+   * Gets the quality cosmetics should run at, sampling MSPT first if it is due.
+   */
+  public Quality getQuality() {
+    if (enabled && System.nanoTime() - nextSampleNanos >= 0L) {
+      sample();
+    }
+    return quality;
+  }
+
+  private void sample() {
+    nextSampleNanos = System.nanoTime() + sampleIntervalNanos;
+    double mspt;
+    try {
+      mspt = Bukkit.getAverageTickTime();
+    } catch (UnsupportedOperationException e) {
+      // No server-wide tick time to go by, so leave quality at full
+      enabled = false;
+      quality = Quality.FULL;
+      plugin.getLogger().warning("Average tick time is unavailable on this server, cosmetic quality will not adapt to load");
+      return;
+    }
+
+    double[] levels = thresholds;
+    int target = 0;
+    while (target < levels.length && mspt >= levels[target]) {
+      target++;
+    }
+    int current = quality.ordinal();
+    if (target > current) {
+      // Step down right away so the cost is shed on the next cosmetic run
+      quality = Quality.values()[target];
+    } else if (current > 0 && mspt < levels[current - 1] - recoveryMargin) {
+      // Recover gradually so a brief dip in load does not bring back the full cost
+      quality = Quality.values()[current - 1];
+    }
+  }
+}
@@ -18,14 +18,17 @@ import city.emerald.bastion.economy.UpgradeManager;
 public class VillageManager {
 
   private final Bastion plugin;
+  private final BastionTicker ticker;
   private UpgradeManager upgradeManager;
   private BarrierManager barrierManager;
-  private Location villageCenter;
+  // Read by event handlers of other regions on Folia
+  private volatile Location villageCenter;
   private List<Villager> registeredVillagers;
   private boolean isProtected;
 
-  public VillageManager(Bastion plugin) {
+  public VillageManager(Bastion plugin, BastionTicker ticker) {
     this.plugin = plugin;
+    this.ticker = ticker;
     this.registeredVillagers = new ArrayList<>();
     this.isProtected = false;
   }
@@ -92,6 +95,7 @@ public class VillageManager {
     // Find a safe location for the village center
     Location spawnLoc = findSafeLocation(villageLocation);
     this.villageCenter = spawnLoc;
+    ticker.setAnchor(spawnLoc);
     world.setSpawnLocation(spawnLoc);
     
     // Load the chunk to ensure villagers can be registered
@@ -202,7 +206,7 @@ public class VillageManager {
     // Get barrier radius from config, fallback to 80 if barrier manager not set
     int radius = barrierManager != null
       ? barrierManager.getBarrierRadius()
-      : plugin.getIntSafe("village.barrier.radius", 80);
+      : plugin.getSettings().barrierRadius;
 
     for (Entity entity : world.getEntities()) {
       if (entity.getType() == EntityType.VILLAGER) {
@@ -215,8 +219,10 @@ public class VillageManager {
             UpgradeManager.UpgradeType.VILLAGER_HEALTH
           );
           if (healthLevel > 0) {
-            villager.setMaxHealth(20 + (healthLevel * 5));
-            villager.setHealth(villager.getMaxHealth());
+            ticker.runFor(villager, () -> {
+              villager.setMaxHealth(20 + (healthLevel * 5));
+              villager.setHealth(villager.getMaxHealth());
+            });
           }
         }
       }
@@ -238,6 +244,14 @@ public class VillageManager {
     return Optional.ofNullable(villageCenter);
   }
 
+  /**
+   * Checks whether a world holds the selected village. Safe to call from any thread.
+   */
+  public boolean isVillageWorld(World world) {
+    Location center = villageCenter;
+    return center != null && center.getWorld() == world;
+  }
+
   /**
    * Gets all registered villagers in the protected area.
    * @return List of registered villagers
@@ -246,6 +260,20 @@ public class VillageManager {
     return new ArrayList<>(registeredVillagers);
   }
 
+  /**
+   * Checks whether a villager is one of the registered villagers, without copying the list.
+   */
+  public boolean isRegisteredVillager(Villager villager) {
+    return registeredVillagers.contains(villager);
+  }
+
+  /**
+   * Gets the number of registered villagers without copying the list.
+   */
+  public int getRegisteredVillagerCount() {
+    return registeredVillagers.size();
+  }
+
   /**
    * Sets the protection state of the village.
    * @param protected_ true to enable protection, false to disable
@@ -273,6 +301,7 @@ public class VillageManager {
     }
     registeredVillagers.clear();
     villageCenter = null;
+    ticker.setAnchor(null);
     isProtected = false;
   }
 
@@ -445,6 +474,6 @@ public class VillageManager {
   private int getBarrierRadius() {
     return barrierManager != null
       ? barrierManager.getBarrierRadius()
-      : plugin.getIntSafe("village.barrier.radius", 80);
+      : plugin.getSettings().barrierRadius;
   }
 }
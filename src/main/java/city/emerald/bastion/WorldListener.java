@@ -8,11 +8,13 @@ import org.bukkit.event.server.ServerLoadEvent;
 public class WorldListener implements Listener {
 
     private final Bastion plugin;
+    private final Arena arena;
     private final VillageManager villageManager;
 
-    public WorldListener(Bastion plugin, VillageManager villageManager) {
+    public WorldListener(Bastion plugin, Arena arena) {
         this.plugin = plugin;
-        this.villageManager = villageManager;
+        this.arena = arena;
+        this.villageManager = arena.getVillageManager();
     }
 
     @EventHandler
@@ -26,14 +28,14 @@ public class WorldListener implements Listener {
             plugin.getLogger().info("Server loaded. Searching for a village to set the world spawn...");
 
             // Use a short delay to ensure all chunks and entities are fully loaded and ready for the search.
-            plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
+            arena.getTicker().runLater(BastionTicker.Phase.COMBAT, 20L, () -> {
                 org.bukkit.Location villageLocation = villageManager.findVillage(mainWorld, mainWorld.getSpawnLocation());
                 if (villageLocation != null && villageManager.selectVillage(villageLocation)) {
                     plugin.getLogger().info("Village found and world spawn has been set automatically.");
                 } else {
                     plugin.getLogger().warning("Could not automatically find a suitable village. World spawn not set. An admin may need to run /bastion findvillage manually.");
                 }
-            }, 20L); // Delay for 1 second (20 ticks)
+            }); // Delay for 1 second (20 ticks)
         }
     }
 }
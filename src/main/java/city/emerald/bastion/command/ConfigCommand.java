@@ -32,6 +32,7 @@ public class ConfigCommand implements CommandExecutor, TabCompleter {
         switch (args[0].toLowerCase()) {
             case "reload":
                 plugin.reloadConfig();
+                plugin.applyConfigChanges();
                 sender.sendMessage("§aConfiguration reloaded.");
                 break;
             case "set":
@@ -43,6 +44,7 @@ public class ConfigCommand implements CommandExecutor, TabCompleter {
                 // Rebuild the value string if it contains spaces
                 String value = String.join(" ", java.util.Arrays.copyOfRange(args, 2, args.length));
                 plugin.getConfig().set(key, value);
+                plugin.applyConfigChanges();
                 sender.sendMessage("§aConfiguration updated (temporary): " + key + " = " + value);
                 break;
             case "get":
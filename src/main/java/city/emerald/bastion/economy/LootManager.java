@@ -37,15 +37,21 @@ public class LootManager {
   // New loot tables using LootTableEntry helper class
   // The items in these tables are in-addition to the default drops
   // Common drops are always available, bonus drops are rarer
-  private final Map<EntityType, List<LootTableEntry>> commonLootTable;
-  private final Map<EntityType, List<LootTableEntry>> bonusLootTable;
+  private Map<EntityType, List<LootTableEntry>> commonLootTable;
+  private Map<EntityType, List<LootTableEntry>> bonusLootTable;
 
 
   public LootManager(Bastion plugin, GameStateManager gameStateManager) {
     this.plugin = plugin;
     this.gameStateManager = gameStateManager;
     this.random = new Random();
+    reloadLootTables();
+  }
 
+  /**
+   * Rebuilds the loot tables from the current configuration.
+   */
+  public void reloadLootTables() {
     // Retrieve configuration values
     double commonLootProbability = plugin.getDoubleSafe("loot_table_settings.common_loot_probability", 0.05);
     int commonLootMaxItems = plugin.getIntSafe("loot_table_settings.common_loot_max_items", 5);
@@ -68,7 +74,7 @@ public class LootManager {
     // For now, let's use a default multiplier and always check for bonus items.
     // This can be customized later based on game state or other factors.
     int currentWave = gameStateManager.getCurrentWaveNumber();
-    double scalingBase = plugin.getDoubleSafe("loot_table_settings.wave_scaling_base", 0.05);
+    double scalingBase = plugin.getSettings().lootWaveScalingBase;
     double multiplier = Math.pow(1.0 + scalingBase, currentWave);
 
     // Apply elite/boss multipliers
@@ -14,6 +14,8 @@ public class UpgradeManager {
   private final VillageManager villageManager;
   private final Map<String, Map<String, Integer>> playerUpgrades;
   private final Map<String, Map<String, Integer>> villageUpgrades;
+  // Bumped on every purchase or reset, so snapshots copy the upgrades only when they changed
+  private long version;
 
   // Define upgrade types and their costs
   public enum UpgradeType {
@@ -82,6 +84,7 @@ public class UpgradeManager {
 
     removeEmeralds(player, cost);
     upgrades.put(upgrade.name(), currentLevel + 1);
+    version++;
     applyPlayerUpgrade(player, upgrade, currentLevel + 1);
 
     player.sendMessage(
@@ -120,6 +123,7 @@ public class UpgradeManager {
 
     removeEmeralds(player, cost);
     upgrades.put(upgrade.name(), currentLevel + 1);
+    version++;
     applyVillageUpgrade(upgrade, currentLevel + 1);
 
     player.sendMessage(
@@ -299,11 +303,34 @@ public class UpgradeManager {
     return result;
   }
 
+  /**
+   * Gets an immutable copy of every player's upgrade levels, by player.
+   */
+  public Map<UUID, Map<UpgradeType, Integer>> copyPlayerUpgrades() {
+    Map<UUID, Map<UpgradeType, Integer>> result = new HashMap<>();
+    for (Map.Entry<String, Map<String, Integer>> entry : playerUpgrades.entrySet()) {
+      Map<UpgradeType, Integer> levels = new EnumMap<>(UpgradeType.class);
+      for (Map.Entry<String, Integer> level : entry.getValue().entrySet()) {
+        levels.put(UpgradeType.valueOf(level.getKey()), level.getValue());
+      }
+      result.put(UUID.fromString(entry.getKey()), Collections.unmodifiableMap(levels));
+    }
+    return Collections.unmodifiableMap(result);
+  }
+
+  /**
+   * Gets a counter that changes whenever any upgrade level changes.
+   */
+  public long getVersion() {
+    return version;
+  }
+
   /**
    * Reset all upgrades (called when game ends)
    */
   public void reset() {
     playerUpgrades.clear();
     villageUpgrades.clear();
+    version++;
   }
 }
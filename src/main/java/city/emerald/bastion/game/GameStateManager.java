@@ -1,7 +1,10 @@
 package city.emerald.bastion.game;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import org.bukkit.Bukkit;
@@ -11,19 +14,25 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
+import city.emerald.bastion.Arena;
 import city.emerald.bastion.Bastion;
+import city.emerald.bastion.BastionTicker;
 import city.emerald.bastion.VillageManager;
 import city.emerald.bastion.wave.WaveManager;
 
 public class GameStateManager implements Listener {
 
   private final Bastion plugin;
+  private final BastionTicker ticker;
+  private Arena arena;
   private WaveManager waveManager;
   private VillageManager villageManager;
 
   private GameState currentState;
   private final Map<UUID, Boolean> activePlayers;
-  private boolean isGameActive;
+  private volatile boolean isGameActive;
+  // Set while startGame() waits for the players' positions
+  private boolean gatheringPlayers;
   private int minPlayers;
   private int maxPlayers;
   private int currentWaveNumber = 0;
@@ -50,15 +59,18 @@ public class GameStateManager implements Listener {
     }
   }
 
-  public GameStateManager(Bastion plugin) {
+  public GameStateManager(Bastion plugin, BastionTicker ticker) {
     this.plugin = plugin;
+    this.ticker = ticker;
     this.currentState = GameState.LOBBY;
     this.activePlayers = new HashMap<>();
     this.isGameActive = false;
     this.minPlayers = plugin.getIntSafe("min_players", 1);
     this.maxPlayers = plugin.getIntSafe("max_players", 8);
+  }
 
-    Bukkit.getPluginManager().registerEvents(this, plugin);
+  public void setArena(Arena arena) {
+    this.arena = arena;
   }
 
   public void setWaveManager(WaveManager waveManager) {
@@ -69,50 +81,88 @@ public class GameStateManager implements Listener {
     this.villageManager = villageManager;
   }
 
+  /**
+   * Starts a game with the players inside this arena's barrier. Each player's
+   * position is read on the thread that owns the player, so the game starts once
+   * every online player has been checked.
+   */
   public void startGame() {
-    if (currentState != GameState.LOBBY || waveManager == null) {
+    if (currentState != GameState.LOBBY || waveManager == null || gatheringPlayers) {
       return;
     }
 
-    // Add all online players to active players
-    for (Player player : Bukkit.getOnlinePlayers()) {
-      activePlayers.put(player.getUniqueId(), true);
+    // Everyone inside this arena's barrier takes part
+    gatheringPlayers = true;
+    List<Player> online = new ArrayList<>(Bukkit.getOnlinePlayers());
+    int[] pending = { online.size() + 1 };
+    Runnable checked = () -> {
+      if (--pending[0] == 0) {
+        finishGathering();
+      }
+    };
+    for (Player player : online) {
+      ticker.runFor(
+        player,
+        () -> {
+          boolean inside = arena.contains(player.getLocation());
+          ticker.execute(() -> {
+            if (inside && gatheringPlayers) {
+              activePlayers.put(player.getUniqueId(), true);
+            }
+            checked.run();
+          });
+        },
+        () -> ticker.execute(checked)
+      );
+    }
+    checked.run();
+  }
+
+  private void finishGathering() {
+    if (!gatheringPlayers) {
+      return;
     }
+    gatheringPlayers = false;
 
     if (activePlayers.size() < minPlayers) {
-      Bukkit.broadcastMessage(
+      broadcast(
         "§cNot enough players to start! Need at least " +
         minPlayers +
         " players."
       );
+      activePlayers.clear();
       return;
     }
 
     currentState = GameState.PREPARING;
     isGameActive = true;
+    arena.arm();
 
     // Start preparation phase
-    Bukkit.broadcastMessage("§6Preparing game...");
-    Bukkit
-      .getScheduler()
-      .runTaskLater(
-        plugin,
+    broadcast("§6Preparing game...");
+    ticker
+      .runLater(
+        BastionTicker.Phase.COMBAT,
+        200L,
         () -> {
           currentState = GameState.ACTIVE;
           // Use currentWaveNumber (defaults to 0, so add 1 for first wave)
           int startingWave = Math.max(1, currentWaveNumber + 1);
           if (waveManager != null) waveManager.startWave(startingWave);
-          Bukkit.broadcastMessage("§aGame started!");
-        },
-        200L
+          broadcast("§aGame started!");
+        }
       ); // 10 seconds preparation
   }
 
   public void stopGame() {
     if (currentState == GameState.LOBBY) {
+      // Abandon a start still waiting for the players' positions
+      gatheringPlayers = false;
+      activePlayers.clear();
       return;
     }
 
+    broadcast("§cGame stopped!");
     currentState = GameState.LOBBY;
     isGameActive = false;
     activePlayers.clear();
@@ -120,8 +170,8 @@ public class GameStateManager implements Listener {
     if (waveManager != null) {
       waveManager.stopWave();
     }
-
-    Bukkit.broadcastMessage("§cGame stopped!");
+    arena.disarm();
+    arena.requestSnapshot();
   }
 
   public void endGame() {
@@ -132,24 +182,23 @@ public class GameStateManager implements Listener {
     currentState = GameState.COMPLETED;
     isGameActive = false;
 
-    Bukkit.broadcastMessage("§6=== Game Completed! ===");
-    Bukkit.broadcastMessage(
+    broadcast("§6=== Game Completed! ===");
+    broadcast(
       "§eWaves Survived: §f" + waveManager.getCurrentWave()
     );
-    Bukkit.broadcastMessage(
+    broadcast(
       "§eVillagers Protected: §f" +
       villageManager.getRegisteredVillagers().size()
     );
 
     // Reset after delay
-    Bukkit
-      .getScheduler()
-      .runTaskLater(
-        plugin,
+    ticker
+      .runLater(
+        BastionTicker.Phase.COMBAT,
+        200L,
         () -> {
           stopGame();
-        },
-        200L
+        }
       );
   }
 
@@ -157,29 +206,34 @@ public class GameStateManager implements Listener {
   public void onPlayerJoin(PlayerJoinEvent event) {
     Player player = event.getPlayer();
 
-    if (isGameActive) {
-      if (
-        currentState == GameState.ACTIVE && activePlayers.size() < maxPlayers
-      ) {
-        activePlayers.put(player.getUniqueId(), true);
-        player.sendMessage("§aYou've joined an active game!");
-      } else {
-        player.sendMessage(
-          "§cA game is in progress. Please wait for the next round."
-        );
+    ticker.execute(() -> {
+      if (isGameActive && arena.contains(player.getLocation())) {
+        if (
+          currentState == GameState.ACTIVE && activePlayers.size() < maxPlayers
+        ) {
+          activePlayers.put(player.getUniqueId(), true);
+          player.sendMessage("§aYou've joined an active game!");
+        } else {
+          player.sendMessage(
+            "§cA game is in progress. Please wait for the next round."
+          );
+        }
       }
-    }
+    });
   }
 
   @EventHandler
   public void onPlayerQuit(PlayerQuitEvent event) {
     Player player = event.getPlayer();
-    activePlayers.remove(player.getUniqueId());
 
-    if (isGameActive && activePlayers.isEmpty()) {
-      stopGame();
-      Bukkit.broadcastMessage("§cGame ended - All players left!");
-    }
+    ticker.execute(() -> {
+      activePlayers.remove(player.getUniqueId());
+
+      if (isGameActive && activePlayers.isEmpty()) {
+        stopGame();
+        plugin.getLogger().info("Game in arena '" + arena.getName() + "' ended - all players left");
+      }
+    });
   }
 
   public GameState getCurrentState() {
@@ -206,13 +260,51 @@ public class GameStateManager implements Listener {
     return new HashMap<>(activePlayers);
   }
 
+  /**
+   * Gets an immutable copy of the ids of the players taking part in the game.
+   */
+  public Set<UUID> getParticipantIds() {
+    return Set.copyOf(activePlayers.keySet());
+  }
+
+  /**
+   * Checks whether a player takes part in this arena's game.
+   */
+  public boolean isParticipant(Player player) {
+    return activePlayers.containsKey(player.getUniqueId());
+  }
+
+  /**
+   * Gets the online players taking part in this arena's game.
+   */
+  public List<Player> getParticipants() {
+    List<Player> participants = new ArrayList<>(activePlayers.size());
+    for (UUID playerId : activePlayers.keySet()) {
+      Player player = Bukkit.getPlayer(playerId);
+      if (player != null) {
+        participants.add(player);
+      }
+    }
+    return participants;
+  }
+
+  /**
+   * Sends a message to this arena's participants only, so games in other arenas
+   * are not spammed.
+   */
+  public void broadcast(String message) {
+    for (Player player : getParticipants()) {
+      player.sendMessage(message);
+    }
+  }
+
   public void checkWaveCompletion() {
     if (
       currentState == GameState.ACTIVE && waveManager.getRemainingMobs() <= 0
     ) {
       if (
         waveManager.getCurrentWave() >=
-        plugin.getIntSafe("max_waves", 30)
+        plugin.getSettings().maxWaves
       ) {
         endGame();
       }
@@ -227,6 +319,9 @@ public class GameStateManager implements Listener {
     if (currentState == GameState.ACTIVE || currentState == GameState.PREPARING) {
       pausedFromState = currentState;
       currentState = GameState.PAUSED;
+      if (waveManager != null) {
+        waveManager.pauseTimer();
+      }
       return true;
     }
     return false;
@@ -240,6 +335,9 @@ public class GameStateManager implements Listener {
     if (currentState == GameState.PAUSED && pausedFromState != null) {
       currentState = pausedFromState;
       pausedFromState = null;
+      if (waveManager != null) {
+        waveManager.resumeTimer();
+      }
       return true;
     }
     return false;
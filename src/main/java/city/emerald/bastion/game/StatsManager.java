@@ -14,21 +14,21 @@ import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 
+/**
+ * Lifetime stats of every player and the history of finished games, shared by all
+ * arenas. Each arena keeps the {@link GameStats} of its own running game and hands
+ * them over with {@link #recordGame} when the game ends. Safe to call from any
+ * arena's thread.
+ */
 public class StatsManager {
 
   private final Bastion plugin;
   private final File statsFile;
   private FileConfiguration statsConfig;
 
-  // Session stats
-  private final Map<UUID, PlayerStats> sessionStats;
-  private GameStats currentGameStats;
-
   public StatsManager(Bastion plugin) {
     this.plugin = plugin;
     this.statsFile = new File(plugin.getDataFolder(), "stats.yml");
-    this.sessionStats = new HashMap<>();
-    this.currentGameStats = new GameStats();
 
     loadStats();
   }
@@ -40,7 +40,7 @@ public class StatsManager {
     statsConfig = YamlConfiguration.loadConfiguration(statsFile);
   }
 
-  public void saveStats() {
+  public synchronized void saveStats() {
     try {
       statsConfig.save(statsFile);
     } catch (IOException e) {
@@ -127,8 +127,12 @@ public class StatsManager {
     }
   }
 
+  /**
+   * Stats of one arena's game and its players, from start to end.
+   */
   public static class GameStats {
 
+    private final Map<UUID, PlayerStats> playerStats;
     private int maxWaveReached;
     private int totalVillagersSaved;
     private int totalMobsKilled;
@@ -138,6 +142,7 @@ public class StatsManager {
     private long endTime;
 
     public GameStats() {
+      this.playerStats = new HashMap<>();
       this.maxWaveReached = 0;
       this.totalVillagersSaved = 0;
       this.totalMobsKilled = 0;
@@ -146,6 +151,13 @@ public class StatsManager {
       this.startTime = System.currentTimeMillis();
     }
 
+    public PlayerStats getPlayerStats(Player player) {
+      return playerStats.computeIfAbsent(
+        player.getUniqueId(),
+        k -> new PlayerStats()
+      );
+    }
+
     public void setMaxWaveReached(int wave) {
       maxWaveReached = wave;
     }
@@ -195,46 +207,37 @@ public class StatsManager {
     }
   }
 
-  public PlayerStats getPlayerStats(Player player) {
-    return sessionStats.computeIfAbsent(
-      player.getUniqueId(),
-      k -> new PlayerStats()
-    );
+  /**
+   * Ends a game and adds it to the history and its players' lifetime stats.
+   */
+  public synchronized void recordGame(GameStats game) {
+    game.endGame();
+    saveGameStats(game);
+    updatePlayerStats(game);
   }
 
-  public void onGameStart() {
-    currentGameStats = new GameStats();
-    sessionStats.clear();
-  }
-
-  public void onGameEnd() {
-    currentGameStats.endGame();
-    saveGameStats();
-    updatePlayerStats();
-  }
-
-  private void saveGameStats() {
+  private void saveGameStats(GameStats game) {
     ConfigurationSection gameHistory = statsConfig.createSection(
       "game-history." + System.currentTimeMillis()
     );
-    gameHistory.set("max-wave", currentGameStats.getMaxWaveReached());
+    gameHistory.set("max-wave", game.getMaxWaveReached());
     gameHistory.set(
       "villagers-saved",
-      currentGameStats.getTotalVillagersSaved()
+      game.getTotalVillagersSaved()
     );
-    gameHistory.set("mobs-killed", currentGameStats.getTotalMobsKilled());
+    gameHistory.set("mobs-killed", game.getTotalMobsKilled());
     gameHistory.set(
       "emeralds-collected",
-      currentGameStats.getTotalEmeraldsCollected()
+      game.getTotalEmeraldsCollected()
     );
     gameHistory.set(
       "upgrades-purchased",
-      currentGameStats.getTotalUpgradesPurchased()
+      game.getTotalUpgradesPurchased()
     );
-    gameHistory.set("duration", currentGameStats.getDuration());
+    gameHistory.set("duration", game.getDuration());
 
     List<String> players = new ArrayList<>();
-    for (UUID id : sessionStats.keySet()) {
+    for (UUID id : game.playerStats.keySet()) {
       Player player = Bukkit.getPlayer(id);
       if (player != null) {
         players.add(player.getName());
@@ -245,8 +248,8 @@ public class StatsManager {
     saveStats();
   }
 
-  private void updatePlayerStats() {
-    for (Map.Entry<UUID, PlayerStats> entry : sessionStats.entrySet()) {
+  private void updatePlayerStats(GameStats game) {
+    for (Map.Entry<UUID, PlayerStats> entry : game.playerStats.entrySet()) {
       UUID playerId = entry.getKey();
       PlayerStats stats = entry.getValue();
 
@@ -280,10 +283,10 @@ public class StatsManager {
 
       // Update high scores
       int highestWave = statsConfig.getInt(path + ".highest-wave", 0);
-      if (currentGameStats.getMaxWaveReached() > highestWave) {
+      if (game.getMaxWaveReached() > highestWave) {
         statsConfig.set(
           path + ".highest-wave",
-          currentGameStats.getMaxWaveReached()
+          game.getMaxWaveReached()
         );
       }
 
@@ -299,36 +302,32 @@ public class StatsManager {
     saveStats();
   }
 
-  public GameStats getCurrentGameStats() {
-    return currentGameStats;
-  }
-
-  public String generateEndGameSummary() {
+  public String generateEndGameSummary(GameStats game) {
     StringBuilder summary = new StringBuilder();
     summary.append("§6=== Game Summary ===\n");
     summary
       .append("§eWaves Completed: §f")
-      .append(currentGameStats.getMaxWaveReached())
+      .append(game.getMaxWaveReached())
       .append("\n");
     summary
       .append("§eVillagers Saved: §f")
-      .append(currentGameStats.getTotalVillagersSaved())
+      .append(game.getTotalVillagersSaved())
       .append("\n");
     summary
       .append("§eTotal Kills: §f")
-      .append(currentGameStats.getTotalMobsKilled())
+      .append(game.getTotalMobsKilled())
       .append("\n");
     summary
       .append("§eEmeralds Collected: §f")
-      .append(currentGameStats.getTotalEmeraldsCollected())
+      .append(game.getTotalEmeraldsCollected())
       .append("\n");
     summary
       .append("§eUpgrades Purchased: §f")
-      .append(currentGameStats.getTotalUpgradesPurchased())
+      .append(game.getTotalUpgradesPurchased())
       .append("\n");
     summary
       .append("§eDuration: §f")
-      .append(formatDuration(currentGameStats.getDuration()))
+      .append(formatDuration(game.getDuration()))
       .append("\n");
     return summary.toString();
   }
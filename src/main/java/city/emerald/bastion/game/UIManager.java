@@ -1,48 +1,57 @@
 package city.emerald.bastion.game;
 
 import city.emerald.bastion.Bastion;
+import city.emerald.bastion.BastionTicker;
 import city.emerald.bastion.VillageManager;
 import city.emerald.bastion.economy.UpgradeManager;
 import city.emerald.bastion.wave.WaveManager;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.Bukkit;
 import org.bukkit.boss.BarColor;
 import org.bukkit.boss.BarStyle;
 import org.bukkit.boss.BossBar;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.scoreboard.DisplaySlot;
 import org.bukkit.scoreboard.Objective;
 import org.bukkit.scoreboard.Score;
 import org.bukkit.scoreboard.Scoreboard;
 import org.bukkit.scoreboard.ScoreboardManager;
 
+/**
+ * Shows a game's progress to its participants: a boss bar for the wave, and a
+ * sidebar scoreboard per player. Folia has no per-player scoreboards, so there the
+ * sidebar's lines are sent as an action bar instead.
+ */
 public class UIManager {
 
   private final Bastion plugin;
+  private final BastionTicker ticker;
   private final WaveManager waveManager;
   private final VillageManager villageManager;
   private final GameStateManager gameStateManager;
   private final Map<UUID, Scoreboard> playerScoreboards;
   private BossBar waveProgressBar;
-  private BukkitTask updateTask;
+  private BastionTicker.Task updateTask;
+  private int updateRuns;
 
   public UIManager(
     Bastion plugin,
+    BastionTicker ticker,
     WaveManager waveManager,
     VillageManager villageManager,
     GameStateManager gameStateManager
   ) {
     this.plugin = plugin;
+    this.ticker = ticker;
     this.waveManager = waveManager;
     this.villageManager = villageManager;
     this.gameStateManager = gameStateManager;
     this.playerScoreboards = new HashMap<>();
 
     setupBossBar();
-    startUpdateTask();
   }
 
   private void setupBossBar() {
@@ -55,34 +64,53 @@ public class UIManager {
     waveProgressBar.setVisible(false);
   }
 
-  private void startUpdateTask() {
+  /**
+   * Starts refreshing the boss bar and scoreboards or action bars, for the duration of a game.
+   */
+  public void arm() {
+    if (updateTask != null) {
+      return;
+    }
     updateTask =
-      Bukkit
-        .getScheduler()
-        .runTaskTimer(
-          plugin,
+      ticker
+        .runTimer(
+          BastionTicker.Phase.UI,
+          20L,
+          20L,
           () -> {
-            if (gameStateManager.isGameActive()) {
+            // Refresh less often while the server is overloaded
+            int multiplier = plugin.getQualityGovernor().getQuality().getIntervalMultiplier();
+            if (gameStateManager.isGameActive() && ++updateRuns % multiplier == 0) {
               updateAllDisplays();
             }
-          },
-          20L,
-          20L
-        ); // Update every second
+          }
+        ); // Update every second at full quality
   }
 
-  public void cleanup() {
+  /**
+   * Stops refreshing the displays while no game is running.
+   */
+  public void disarm() {
     if (updateTask != null) {
       updateTask.cancel();
+      updateTask = null;
     }
+  }
+
+  public void cleanup() {
+    disarm();
     waveProgressBar.removeAll();
     playerScoreboards.clear();
   }
 
   private void updateAllDisplays() {
     updateWaveProgress();
-    for (Player player : Bukkit.getOnlinePlayers()) {
-      updateScoreboard(player);
+    for (Player player : gameStateManager.getParticipants()) {
+      if (BastionTicker.isRegionized()) {
+        updateActionBar(player);
+      } else {
+        updateScoreboard(player);
+      }
     }
   }
 
@@ -103,6 +131,28 @@ public class UIManager {
     }
   }
 
+  /**
+   * Sends the game state as an action bar, in place of the scoreboard on Folia.
+   */
+  private void updateActionBar(Player player) {
+    String text = "§fGame State: §e" + gameStateManager.getCurrentState().getMessage();
+    if (gameStateManager.isGameActive()) {
+      text =
+        "§fWave: §a" + waveManager.getCurrentWave() +
+        " §7| §fEnemies: §c" + waveManager.getRemainingMobs() +
+        " §7| §fVillagers: §e" + villageManager.getRegisteredVillagers().size() +
+        " §7| §fKills: §a" + waveManager.getKillCount();
+    }
+    String message = text;
+    ticker.runFor(
+      player,
+      () -> player.sendActionBar(LegacyComponentSerializer.legacySection().deserialize(message))
+    );
+  }
+
+  /**
+   * Shows the game state on the player's own sidebar scoreboard. Not available on Folia.
+   */
   public void updateScoreboard(Player player) {
     ScoreboardManager manager = Bukkit.getScoreboardManager();
     Scoreboard board = playerScoreboards.computeIfAbsent(
@@ -153,7 +203,7 @@ public class UIManager {
         .setScore(line--);
     }
 
-    player.setScoreboard(board);
+    ticker.runFor(player, () -> player.setScoreboard(board));
   }
 
   public void showUpgradeAvailable(
@@ -171,7 +221,7 @@ public class UIManager {
 
   public void showWaveStarting(int waveNumber) {
     waveProgressBar.setVisible(true);
-    for (Player player : Bukkit.getOnlinePlayers()) {
+    for (Player player : gameStateManager.getParticipants()) {
       player.sendTitle(
         "§6Wave " + waveNumber,
         "§ePrepare for battle!",
@@ -184,7 +234,7 @@ public class UIManager {
 
   public void showWaveComplete(int waveNumber) {
     waveProgressBar.setVisible(false);
-    for (Player player : Bukkit.getOnlinePlayers()) {
+    for (Player player : gameStateManager.getParticipants()) {
       player.sendTitle(
         "§aWave " + waveNumber + " Complete!",
         "§eGet ready for the next wave...",
@@ -196,7 +246,7 @@ public class UIManager {
   }
 
   public void showGameOver(int wavesCompleted, int villagersSaved) {
-    for (Player player : Bukkit.getOnlinePlayers()) {
+    for (Player player : gameStateManager.getParticipants()) {
       player.sendTitle(
         "§c§lGame Over!",
         String.format(
@@ -214,12 +264,21 @@ public class UIManager {
 
   public void addPlayer(Player player) {
     waveProgressBar.addPlayer(player);
-    updateScoreboard(player);
+    if (BastionTicker.isRegionized()) {
+      updateActionBar(player);
+    } else {
+      updateScoreboard(player);
+    }
   }
 
   public void removePlayer(Player player) {
     waveProgressBar.removePlayer(player);
-    playerScoreboards.remove(player.getUniqueId());
-    player.setScoreboard(Bukkit.getScoreboardManager().getNewScoreboard());
+    if (playerScoreboards.remove(player.getUniqueId()) == null) {
+      return;
+    }
+    ticker.runFor(
+      player,
+      () -> player.setScoreboard(Bukkit.getScoreboardManager().getNewScoreboard())
+    );
   }
 }
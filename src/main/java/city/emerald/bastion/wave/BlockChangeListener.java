@@ -0,0 +1,125 @@
+package city.emerald.bastion.wave;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFormEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+
+/**
+ * Forwards every block that changes in the world to the AI structures derived from
+ * blocks, such as the line-of-sight cache and the flow field heightmap.
+ * Subscribers run through the given executor, on the thread that owns them, with
+ * the blocks of one event handed over together. Subscribers filter by world themselves.
+ */
+final class BlockChangeListener implements Listener {
+
+  private final Executor executor;
+  private final List<Consumer<Block>> subscribers;
+
+  @SafeVarargs
+  BlockChangeListener(Executor executor, Consumer<Block>... subscribers) {
+    this.executor = executor;
+    this.subscribers = List.of(subscribers);
+  }
+
+  private void changed(Block block) {
+    changed(List.of(block));
+  }
+
+  /**
+   * Hands the blocks to the subscribers. The list must not change afterwards.
+   */
+  private void changed(List<Block> blocks) {
+    if (blocks.isEmpty()) {
+      return;
+    }
+    executor.execute(() -> {
+      for (Block block : blocks) {
+        for (Consumer<Block> subscriber : subscribers) {
+          subscriber.accept(block);
+        }
+      }
+    });
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockBreak(BlockBreakEvent event) {
+    changed(event.getBlock());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockPlace(BlockPlaceEvent event) {
+    changed(event.getBlock());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockBurn(BlockBurnEvent event) {
+    changed(event.getBlock());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockFade(BlockFadeEvent event) {
+    changed(event.getBlock());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockForm(BlockFormEvent event) {
+    changed(event.getBlock());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockExplode(BlockExplodeEvent event) {
+    List<Block> blocks = new ArrayList<>(event.blockList());
+    blocks.add(event.getBlock());
+    changed(blocks);
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onEntityExplode(EntityExplodeEvent event) {
+    changed(List.copyOf(event.blockList()));
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onEntityChangeBlock(EntityChangeBlockEvent event) {
+    changed(event.getBlock());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onPistonExtend(BlockPistonExtendEvent event) {
+    changed(pistonBlocks(event.getBlock(), event.getBlocks(), event.getDirection()));
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onPistonRetract(BlockPistonRetractEvent event) {
+    changed(pistonBlocks(event.getBlock(), event.getBlocks(), event.getDirection()));
+  }
+
+  /**
+   * Collects the blocks a piston moves and the cells they move into.
+   */
+  private static List<Block> pistonBlocks(Block piston, List<Block> moved, BlockFace direction) {
+    List<Block> blocks = new ArrayList<>(2 * moved.size() + 1);
+    blocks.add(piston.getRelative(direction));
+    for (Block block : moved) {
+      blocks.add(block);
+      blocks.add(block.getRelative(direction));
+    }
+    return blocks;
+  }
+}
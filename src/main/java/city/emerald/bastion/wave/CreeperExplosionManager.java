@@ -1,9 +1,9 @@
 package city.emerald.bastion.wave;
 
-import java.util.Deque;
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.UUID;
 
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Creeper;
@@ -12,55 +12,105 @@ import org.bukkit.entity.Player;
 import org.bukkit.entity.Villager;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
-import org.bukkit.event.entity.EntityDeathEvent;
 import org.bukkit.event.entity.EntityExplodeEvent;
-import org.bukkit.event.entity.EntityTargetEvent;
 import org.bukkit.event.entity.EntityTargetLivingEntityEvent;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
 import city.emerald.bastion.Bastion;
-
+import city.emerald.bastion.BastionTicker;
+
+/**
+ * Makes creepers that stop making progress toward a player or villager explode
+ * after a countdown. Every monitored creeper occupies a slot in a set of parallel
+ * arrays, and all of them are driven by one timer wheel ticked from a single
+ * ticker job that only runs while monitors exist. Resetting a countdown is a field write; the
+ * wheel entry for the old wake-up simply reschedules itself when it comes up early.
+ */
 public class CreeperExplosionManager implements Listener {
 
+  // Covers the default countdown and check interval, longer waits go round the wheel
+  private static final int WHEEL_SPAN = 128;
+
   private final Bastion plugin;
-  private final Map<Creeper, ProgressMonitor> activeMonitors;
-  
+  private final BastionTicker ticker;
+  private final TimerWheel wheel;
+  private final Map<UUID, Integer> slotsByCreeper;
+
   // Configuration values
   private boolean enabled;
   private int countdownSeconds;
   private int progressCheckInterval; // in ticks
   private int positionHistorySize;
 
-  public CreeperExplosionManager(Bastion plugin) {
+  // Monitor state, one entry per slot
+  private Creeper[] creepers;
+  private LivingEntity[] targets;
+  private int[] generations;
+  private long[] countdownDeadlines;
+  private long[] nextChecks;
+  private long[] wakeTicks;
+  private boolean[] preExplosion;
+  // Ring buffer of recent block keys, positionHistorySize entries per slot
+  private long[] history;
+  private int[] historyStarts;
+  private int[] historyLengths;
+  private int[] freeSlots;
+  private int freeCount;
+  private int slotCount;
+
+  private BastionTicker.Task tickTask;
+  private long currentTick;
+
+  public CreeperExplosionManager(Bastion plugin, BastionTicker ticker) {
     this.plugin = plugin;
-    this.activeMonitors = new ConcurrentHashMap<>();
+    this.ticker = ticker;
+    this.wheel = new TimerWheel(WHEEL_SPAN);
+    this.slotsByCreeper = new HashMap<>();
     loadConfiguration();
-    
-    // Register events
-    plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    allocateSlots(16);
   }
 
   private void loadConfiguration() {
     this.enabled = plugin.getBooleanSafe("creeper_explosion.enabled", true);
     this.countdownSeconds = plugin.getIntSafe("creeper_explosion.countdown_seconds", 5);
-    this.progressCheckInterval = plugin.getIntSafe("creeper_explosion.progress_check_interval", 20);
-    this.positionHistorySize = plugin.getIntSafe("creeper_explosion.position_history_size", 3);
+    this.progressCheckInterval = Math.max(1, plugin.getIntSafe("creeper_explosion.progress_check_interval", 20));
+    this.positionHistorySize = Math.max(0, plugin.getIntSafe("creeper_explosion.position_history_size", 3));
   }
 
-  @EventHandler
-  public void onEntityTarget(EntityTargetLivingEntityEvent event) {
+  private void allocateSlots(int capacity) {
+    int previous = creepers == null ? 0 : creepers.length;
+    creepers = creepers == null ? new Creeper[capacity] : Arrays.copyOf(creepers, capacity);
+    targets = targets == null ? new LivingEntity[capacity] : Arrays.copyOf(targets, capacity);
+    generations = generations == null ? new int[capacity] : Arrays.copyOf(generations, capacity);
+    countdownDeadlines = countdownDeadlines == null ? new long[capacity] : Arrays.copyOf(countdownDeadlines, capacity);
+    nextChecks = nextChecks == null ? new long[capacity] : Arrays.copyOf(nextChecks, capacity);
+    wakeTicks = wakeTicks == null ? new long[capacity] : Arrays.copyOf(wakeTicks, capacity);
+    preExplosion = preExplosion == null ? new boolean[capacity] : Arrays.copyOf(preExplosion, capacity);
+    history = history == null
+      ? new long[capacity * positionHistorySize]
+      : Arrays.copyOf(history, capacity * positionHistorySize);
+    historyStarts = historyStarts == null ? new int[capacity] : Arrays.copyOf(historyStarts, capacity);
+    historyLengths = historyLengths == null ? new int[capacity] : Arrays.copyOf(historyLengths, capacity);
+    freeSlots = freeSlots == null ? new int[capacity] : Arrays.copyOf(freeSlots, capacity);
+
+    // New slots are handed out lowest first
+    for (int slot = capacity - 1; slot >= previous; slot--) {
+      freeSlots[freeCount++] = slot;
+    }
+  }
+
+  /**
+   * Starts or stops the progress monitor of a wave creeper whose target changed.
+   * Dispatched by the arena event router.
+   */
+  public void handleCreeperTarget(EntityTargetLivingEntityEvent event, Creeper creeper) {
     if (!enabled || event.isCancelled()) {
       return;
     }
 
-    // Only handle creepers targeting players or villagers
-    if (!(event.getEntity() instanceof Creeper)) {
+    // Pre-staged creepers stay inert until their wave begins
+    if (!creeper.hasAI()) {
       return;
     }
-    //logToChat("Creeper target event");
-
-    Creeper creeper = (Creeper) event.getEntity();
     
     // Check if target is a LivingEntity first
     if (!(event.getTarget() instanceof LivingEntity)) {
@@ -83,19 +133,17 @@ public class CreeperExplosionManager implements Listener {
     removeMonitor(creeper);
 
     // Create new progress monitor for this creeper
-    ProgressMonitor monitor = new ProgressMonitor(creeper, target);
-    activeMonitors.put(creeper, monitor);
-    monitor.start();
+    startMonitor(creeper, target);
 
     // Add logging when a creeper starts monitoring a target
     //logToChat("Creeper started monitoring target: " + target.getName());
   }
 
-  @EventHandler
-  public void onEntityDeath(EntityDeathEvent event) {
-    if (event.getEntity() instanceof Creeper) {
-      removeMonitor((Creeper) event.getEntity());
-    }
+  /**
+   * Drops the monitor of a wave creeper that died. Dispatched by the arena event router.
+   */
+  public void handleCreeperDeath(Creeper creeper) {
+    removeMonitor(creeper);
   }
 
   @EventHandler
@@ -105,10 +153,45 @@ public class CreeperExplosionManager implements Listener {
     }
   }
 
+  private void startMonitor(Creeper creeper, LivingEntity target) {
+    if (freeCount == 0) {
+      allocateSlots(creepers.length * 2);
+    }
+    int slot = freeSlots[--freeCount];
+    slotsByCreeper.put(creeper.getUniqueId(), slot);
+    slotCount++;
+
+    creepers[slot] = creeper;
+    targets[slot] = target;
+    preExplosion[slot] = false;
+    countdownDeadlines[slot] = currentTick + countdownSeconds * 20L; // Convert seconds to ticks
+    nextChecks[slot] = currentTick + progressCheckInterval;
+    resetProgress(slot);
+    scheduleWake(slot);
+
+    if (tickTask == null) {
+      tickTask = ticker.runTimer(BastionTicker.Phase.COMBAT, 1L, 1L, this::tick);
+    }
+  }
+
   private void removeMonitor(Creeper creeper) {
-    ProgressMonitor monitor = activeMonitors.remove(creeper);
-    if (monitor != null) {
-      monitor.cleanup();
+    Integer slot = slotsByCreeper.remove(creeper.getUniqueId());
+    if (slot != null) {
+      releaseSlot(slot);
+    }
+  }
+
+  private void releaseSlot(int slot) {
+    // Bumping the generation turns the slot's pending wheel entry into a no-op
+    generations[slot]++;
+    creepers[slot] = null;
+    targets[slot] = null;
+    freeSlots[freeCount++] = slot;
+    slotCount--;
+
+    if (slotCount == 0 && tickTask != null) {
+      tickTask.cancel();
+      tickTask = null;
     }
   }
 
@@ -116,137 +199,132 @@ public class CreeperExplosionManager implements Listener {
    * Clean up all active monitors (called when game ends or plugin disables)
    */
   public void cleanup() {
-    for (ProgressMonitor monitor : activeMonitors.values()) {
-      monitor.cleanup();
+    for (int slot : slotsByCreeper.values()) {
+      releaseSlot(slot);
     }
-    activeMonitors.clear();
+    slotsByCreeper.clear();
+    wheel.clear();
   }
 
-  private void logToChat(String message) {
-    for (Player player : Bukkit.getOnlinePlayers()) {
-      player.sendMessage("[CreeperExplosionManager Debug] " + message);
-    }
+  private void tick() {
+    currentTick++;
+    wheel.advance(currentTick, this::wake);
   }
 
-  private class ProgressMonitor {
-    private final Creeper creeper;
-    private final LivingEntity target;
-    private BukkitTask countdownTask;
-    private BukkitTask progressCheckTask;
-    
-    // Progress tracking fields
-    private final Deque<Long> recentBlockPositions;
-    private boolean isPreExplosion;
-
-    public ProgressMonitor(Creeper creeper, LivingEntity target) {
-      this.creeper = creeper;
-      this.target = target;
-      this.isPreExplosion = false;
-      this.recentBlockPositions = new LinkedList<>();
-      
-      // Initialize tracking values
-      resetProgress();
-    }
-
-    public void start() {
-      startCountdownTask();
-      startProgressCheckTask();
-    }
-
-    private void startCountdownTask() {
-      countdownTask = new BukkitRunnable() {
-        @Override
-        public void run() {
-          if (creeper.isValid() && !creeper.isDead()) {
-            // Force explosion
-            creeper.explode();
-            //logToChat("Creeper exploded due to pathfinding obstruction at " + creeper.getLocation());
-          } else {
-            //logToChat("Creeper explosion task canceled because creeper is invalid or dead.");
-          }
-          cleanup();
-        }
-      }.runTaskLater(plugin, countdownSeconds * 20L); // Convert seconds to ticks
-
-      //logToChat("Countdown task started for creeper at " + creeper.getLocation());
-    }
-
-    private void startProgressCheckTask() {
-      progressCheckTask = new BukkitRunnable() {
-        @Override
-        public void run() {
-          if (!creeper.isValid() || creeper.isDead() || !target.isValid()) {
-            cleanup();
-            return;
-          }
-
-          // Check if creeper is in pre-explosion state
-          if (creeper.getFuseTicks() > 0) {
-            if (!isPreExplosion) {
-              isPreExplosion = true;
-              resetProgress();
-              resetCountdown();
-            }
-            return;
-          } else {
-            isPreExplosion = false;
-          }
-
-          // Check for progress
-          if (hasProgress()) {
-            resetCountdown();
-          }
-        }
-      }.runTaskTimer(plugin, progressCheckInterval, progressCheckInterval);
-    }
-
-    private void resetCountdown() {
-      if (countdownTask != null && !countdownTask.isCancelled()) {
-        countdownTask.cancel();
+  private void scheduleWake(int slot) {
+    wakeTicks[slot] = Math.min(nextChecks[slot], countdownDeadlines[slot]);
+    wheel.schedule(slot, generations[slot], wakeTicks[slot]);
+  }
+
+  private void wake(int slot, int generation) {
+    if (generations[slot] != generation) {
+      return;
+    }
+    // Deadline beyond the wheel span, or a countdown pushed back since scheduling
+    if (wakeTicks[slot] > currentTick) {
+      wheel.schedule(slot, generation, wakeTicks[slot]);
+      return;
+    }
+
+    Creeper creeper = creepers[slot];
+    if (nextChecks[slot] <= currentTick) {
+      nextChecks[slot] = currentTick + progressCheckInterval;
+      if (!checkProgress(slot)) {
+        removeMonitor(creeper);
+        return;
       }
-      startCountdownTask();
     }
 
-    private void resetProgress() {
-      // Clear position history and add current block key
-      recentBlockPositions.clear();
-      recentBlockPositions.addLast(creeper.getLocation().toBlockKey());
+    if (countdownDeadlines[slot] <= currentTick) {
+      if (creeper.isValid() && !creeper.isDead()) {
+        // Force explosion, on the creeper's own region if it wandered out of the arena's
+        ticker.runFor(creeper, creeper::explode);
+        //logToChat("Creeper exploded due to pathfinding obstruction at " + creeper.getLocation());
+      }
+      removeMonitor(creeper);
+      return;
+    }
+    scheduleWake(slot);
+  }
+
+  /**
+   * Runs one progress check, pushing the countdown back if the creeper moved or
+   * started its fuse.
+   * @return False if the monitor should stop because the creeper or target is gone
+   */
+  private boolean checkProgress(int slot) {
+    Creeper creeper = creepers[slot];
+    if (!creeper.isValid() || creeper.isDead() || !targets[slot].isValid()) {
+      return false;
+    }
+
+    // Check if creeper is in pre-explosion state
+    if (creeper.getFuseTicks() > 0) {
+      if (!preExplosion[slot]) {
+        preExplosion[slot] = true;
+        resetProgress(slot);
+        resetCountdown(slot);
+      }
+      return true;
+    }
+    preExplosion[slot] = false;
 
-      // Add logging when progress is reset
-      //logToChat("Creeper progress reset.");
+    // Check for progress
+    if (hasProgress(slot)) {
+      resetCountdown(slot);
     }
+    return true;
+  }
 
-    private boolean hasProgress() {
-      long currentBlockKey = creeper.getLocation().toBlockKey();
+  private void resetCountdown(int slot) {
+    countdownDeadlines[slot] = currentTick + countdownSeconds * 20L;
+  }
 
-      // Check if current block key is different from any recent positions
-      boolean hasNewPosition = !recentBlockPositions.contains(currentBlockKey);
+  private void resetProgress(int slot) {
+    // Clear position history and add current block key
+    historyStarts[slot] = 0;
+    historyLengths[slot] = 0;
+    recordPosition(slot, creepers[slot].getLocation().toBlockKey());
+  }
 
-      // Add current position to end of deque
-      recentBlockPositions.addLast(currentBlockKey);
+  private boolean hasProgress(int slot) {
+    long currentBlockKey = creepers[slot].getLocation().toBlockKey();
 
-      // Maintain deque size by removing from front
-      while (recentBlockPositions.size() > positionHistorySize) {
-        recentBlockPositions.removeFirst();
+    // Check if current block key is different from any recent positions
+    int base = slot * positionHistorySize;
+    boolean hasNewPosition = true;
+    for (int i = 0; i < historyLengths[slot]; i++) {
+      if (history[base + (historyStarts[slot] + i) % positionHistorySize] == currentBlockKey) {
+        hasNewPosition = false;
+        break;
       }
+    }
 
-      if (hasNewPosition) {
-        //logToChat("Creeper detected progress at " + creeper.getLocation());
-      } else {
-        //logToChat("No progress detected for creeper at " + creeper.getLocation());
-      }
+    recordPosition(slot, currentBlockKey);
+    return hasNewPosition;
+  }
 
-      return hasNewPosition;
+  /**
+   * Appends a block key to the slot's history, overwriting the oldest when full.
+   */
+  private void recordPosition(int slot, long blockKey) {
+    if (positionHistorySize == 0) {
+      return;
+    }
+    int base = slot * positionHistorySize;
+    int length = historyLengths[slot];
+    if (length < positionHistorySize) {
+      history[base + (historyStarts[slot] + length) % positionHistorySize] = blockKey;
+      historyLengths[slot] = length + 1;
+    } else {
+      history[base + historyStarts[slot]] = blockKey;
+      historyStarts[slot] = (historyStarts[slot] + 1) % positionHistorySize;
     }
+  }
 
-    public void cleanup() {
-      if (countdownTask != null && !countdownTask.isCancelled()) {
-        countdownTask.cancel();
-      }
-      if (progressCheckTask != null && !progressCheckTask.isCancelled()) {
-        progressCheckTask.cancel();
-      }
-      activeMonitors.remove(creeper);
+  private void logToChat(String message) {
+    for (Player player : Bukkit.getOnlinePlayers()) {
+      player.sendMessage("[CreeperExplosionManager Debug] " + message);
     }
   }
 }
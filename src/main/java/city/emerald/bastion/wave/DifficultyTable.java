@@ -0,0 +1,254 @@
+package city.emerald.bastion.wave;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.EntityType;
+
+/**
+ * Immutable, pre-compiled form of the {@code mob_difficulty} config section.
+ * Mob types are kept sorted by difficulty in primitive arrays, and an alias table is
+ * compiled per wave so that sampling a mob is O(1). Instances are safe to share
+ * between threads as long as each caller supplies its own {@link Random}.
+ */
+public final class DifficultyTable {
+
+  private final EntityType[] types;
+  private final double[] difficulties;
+  private final double startingDifficulty;
+  private final double difficultyGrowth;
+  private final AliasTable[] waveTables;
+
+  private DifficultyTable(
+    EntityType[] types,
+    double[] difficulties,
+    double startingDifficulty,
+    double difficultyGrowth,
+    int precompiledWaves
+  ) {
+    this.types = types;
+    this.difficulties = difficulties;
+    this.startingDifficulty = startingDifficulty;
+    this.difficultyGrowth = difficultyGrowth;
+    this.waveTables = new AliasTable[Math.max(0, precompiledWaves)];
+    for (int wave = 1; wave <= waveTables.length; wave++) {
+      waveTables[wave - 1] = new AliasTable(selectionWeights(targetDifficulty(wave)));
+    }
+  }
+
+  /**
+   * Compiles the difficulty table from config.
+   * @param section The {@code mob_difficulty} section, may be null
+   * @param startingDifficulty Target average difficulty of wave 1
+   * @param increasePercent Percentage increase of the target per wave
+   * @param precompiledWaves Number of waves to build alias tables for up front
+   * @param logger Logger for config problems
+   * @return The compiled table, falling back to zombies only if the section is unusable
+   */
+  public static DifficultyTable compile(
+    ConfigurationSection section,
+    double startingDifficulty,
+    double increasePercent,
+    int precompiledWaves,
+    Logger logger
+  ) {
+    List<EntityType> parsedTypes = new ArrayList<>();
+    List<Double> parsedDifficulties = new ArrayList<>();
+
+    if (section != null) {
+      for (String key : section.getKeys(false)) {
+        try {
+          parsedTypes.add(EntityType.valueOf(key.toUpperCase()));
+          parsedDifficulties.add(section.getDouble(key));
+        } catch (IllegalArgumentException e) {
+          logger.warning("Invalid mob type in config.yml: " + key);
+        }
+      }
+    }
+
+    if (parsedTypes.isEmpty()) {
+      logger.severe("mob_difficulty section is empty or missing from config.yml!");
+      parsedTypes.add(EntityType.ZOMBIE);
+      parsedDifficulties.add(1.0);
+    }
+
+    // Sort by difficulty so nearest-difficulty lookups can binary search
+    Integer[] order = new Integer[parsedTypes.size()];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, Comparator.comparingDouble(parsedDifficulties::get));
+
+    EntityType[] types = new EntityType[order.length];
+    double[] difficulties = new double[order.length];
+    for (int i = 0; i < order.length; i++) {
+      types[i] = parsedTypes.get(order[i]);
+      difficulties[i] = parsedDifficulties.get(order[i]);
+    }
+
+    return new DifficultyTable(
+      types,
+      difficulties,
+      startingDifficulty,
+      increasePercent / 100.0,
+      precompiledWaves
+    );
+  }
+
+  /**
+   * Gets the target average difficulty for a wave.
+   * @param waveNumber The wave number, starting at 1
+   * @return The target average difficulty
+   */
+  public double targetDifficulty(int waveNumber) {
+    return startingDifficulty * Math.pow(1 + difficultyGrowth, waveNumber - 1);
+  }
+
+  /**
+   * Fills {@code out} with a wave composition whose average difficulty is as close to
+   * the wave's target as the configured mob types allow.
+   * Mobs are sampled from the wave's alias table, then a single corrective pass
+   * swaps individual mobs for the type that best absorbs the remaining difficulty
+   * error. Runs in O(mobCount * log(types)).
+   * @param waveNumber The wave number, starting at 1
+   * @param out Array to fill, its length is the mob count
+   * @param random Random source owned by the caller
+   * @return The achieved average difficulty
+   */
+  public double compose(int waveNumber, EntityType[] out, Random random) {
+    int mobCount = out.length;
+    double target = targetDifficulty(waveNumber);
+    if (mobCount == 0) {
+      return target;
+    }
+
+    AliasTable table = waveNumber >= 1 && waveNumber <= waveTables.length
+      ? waveTables[waveNumber - 1]
+      : new AliasTable(selectionWeights(target));
+
+    int[] picks = new int[mobCount];
+    double total = 0.0;
+    for (int i = 0; i < mobCount; i++) {
+      picks[i] = table.sample(random);
+      total += difficulties[picks[i]];
+    }
+
+    // Targets outside the configured range can only be approached, not reached
+    double reachableTarget = Math.max(
+      difficulties[0],
+      Math.min(difficulties[difficulties.length - 1], target)
+    );
+    double residual = reachableTarget * mobCount - total;
+
+    for (int i = 0; i < mobCount && Math.abs(residual) > 1e-9; i++) {
+      double current = difficulties[picks[i]];
+      int replacement = nearestIndex(current + residual);
+      double delta = difficulties[replacement] - current;
+      if (Math.abs(residual - delta) < Math.abs(residual)) {
+        picks[i] = replacement;
+        residual -= delta;
+        total += delta;
+      }
+    }
+
+    for (int i = 0; i < mobCount; i++) {
+      out[i] = types[picks[i]];
+    }
+    return total / mobCount;
+  }
+
+  /**
+   * Selection weight of each mob type, decaying with its distance from the target.
+   */
+  private double[] selectionWeights(double targetDifficulty) {
+    double[] weights = new double[difficulties.length];
+    for (int i = 0; i < weights.length; i++) {
+      weights[i] = Math.exp(-Math.abs(difficulties[i] - targetDifficulty) * 2.0);
+    }
+    return weights;
+  }
+
+  /**
+   * Finds the index of the mob type whose difficulty is closest to {@code value}.
+   */
+  private int nearestIndex(double value) {
+    int index = Arrays.binarySearch(difficulties, value);
+    if (index >= 0) {
+      return index;
+    }
+    int upper = -index - 1;
+    if (upper == 0) {
+      return 0;
+    }
+    if (upper == difficulties.length) {
+      return difficulties.length - 1;
+    }
+    return value - difficulties[upper - 1] <= difficulties[upper] - value
+      ? upper - 1
+      : upper;
+  }
+
+  /**
+   * Vose alias table for O(1) sampling from a discrete distribution.
+   */
+  private static final class AliasTable {
+    private final double[] probability;
+    private final int[] alias;
+
+    AliasTable(double[] weights) {
+      int n = weights.length;
+      this.probability = new double[n];
+      this.alias = new int[n];
+
+      double sum = 0.0;
+      for (double weight : weights) {
+        sum += weight;
+      }
+
+      double[] scaled = new double[n];
+      int[] small = new int[n];
+      int[] large = new int[n];
+      int smallCount = 0;
+      int largeCount = 0;
+      for (int i = 0; i < n; i++) {
+        scaled[i] = sum > 0 ? weights[i] * n / sum : 1.0;
+        if (scaled[i] < 1.0) {
+          small[smallCount++] = i;
+        } else {
+          large[largeCount++] = i;
+        }
+      }
+
+      while (smallCount > 0 && largeCount > 0) {
+        int less = small[--smallCount];
+        int more = large[--largeCount];
+        probability[less] = scaled[less];
+        alias[less] = more;
+        scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+        if (scaled[more] < 1.0) {
+          small[smallCount++] = more;
+        } else {
+          large[largeCount++] = more;
+        }
+      }
+
+      // Remaining entries are 1.0 up to rounding error
+      while (largeCount > 0) {
+        probability[large[--largeCount]] = 1.0;
+      }
+      while (smallCount > 0) {
+        probability[small[--smallCount]] = 1.0;
+      }
+    }
+
+    int sample(Random random) {
+      int column = random.nextInt(probability.length);
+      return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+  }
+}
@@ -0,0 +1,330 @@
+package city.emerald.bastion.wave;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+/**
+ * Shared distance field over the arena, pointing every walkable column toward the
+ * nearest player or villager. Built by a breadth-first search over a heightmap of
+ * the arena; a step is walkable if it climbs at most one block or drops at most
+ * three. Mobs far from their target follow the field's gradient to a nearby
+ * waypoint instead of each pathfinding across the whole arena.
+ * Heights are sampled once per arena and afterwards only for columns whose blocks
+ * changed, spread over as many calls to {@link #sample} as the caller's budget
+ * needs; the search only reruns when a sampled height or a source changed.
+ * Arena thread only.
+ */
+final class FlowField {
+
+  private static final int UNREACHED = -1;
+  private static final int IMPASSABLE = Integer.MIN_VALUE;
+  private static final int MAX_CLIMB = 1;
+  private static final int MAX_DROP = 3;
+  private static final int[] STEP_X = { 1, -1, 0, 0 };
+  private static final int[] STEP_Z = { 0, 0, 1, -1 };
+  // Columns sampled between budget checks
+  private static final int SAMPLE_BATCH = 64;
+
+  private World world;
+  private int originX;
+  private int originZ;
+  private int size;
+  private int[] heights;
+  private int[] distances;
+  private int[] queue;
+  private boolean[] dirty;
+  private int[] dirtyColumns;
+  private int dirtyCount;
+  // Columns in unloaded chunks, retried once per pass by retryUnloaded()
+  private int[] unloadedColumns;
+  private int unloadedCount;
+  private boolean[] isSource;
+  private int[] sources;
+  private int sourceCount;
+  // Sources of the last search, sorted
+  private int[] searchedSources;
+  private int searchedSourceCount;
+  private boolean heightsChanged;
+
+  FlowField() {
+    this.size = 0;
+  }
+
+  /**
+   * Sets the arena covered by the field. Changing the arena re-samples every column
+   * on the next build.
+   * @param center The village center
+   * @param radius Half the edge length of the covered square, in blocks
+   */
+  void setArena(Location center, int radius) {
+    World centerWorld = center.getWorld();
+    int newOriginX = center.getBlockX() - radius;
+    int newOriginZ = center.getBlockZ() - radius;
+    int newSize = 2 * radius + 1;
+    if (centerWorld == world && newOriginX == originX && newOriginZ == originZ && newSize == size) {
+      return;
+    }
+
+    world = centerWorld;
+    originX = newOriginX;
+    originZ = newOriginZ;
+    size = newSize;
+    int cells = size * size;
+    heights = new int[cells];
+    distances = new int[cells];
+    queue = new int[cells];
+    dirty = new boolean[cells];
+    dirtyColumns = new int[cells];
+    dirtyCount = 0;
+    unloadedColumns = new int[cells];
+    unloadedCount = 0;
+    isSource = new boolean[cells];
+    sources = new int[cells];
+    sourceCount = 0;
+    searchedSources = new int[cells];
+    searchedSourceCount = 0;
+    // Mark in reverse so sampling, which takes the newest first, starts at the origin
+    for (int i = cells - 1; i >= 0; i--) {
+      markDirty(i);
+    }
+    Arrays.fill(distances, UNREACHED);
+    heightsChanged = true;
+  }
+
+  /**
+   * Releases the field; the next {@link #setArena} re-samples every column, since
+   * blocks may have changed while nothing was listening.
+   */
+  void reset() {
+    world = null;
+    size = 0;
+    heights = null;
+    distances = null;
+    queue = null;
+    dirty = null;
+    dirtyColumns = null;
+    dirtyCount = 0;
+    unloadedColumns = null;
+    unloadedCount = 0;
+    isSource = null;
+    sources = null;
+    sourceCount = 0;
+    searchedSources = null;
+    searchedSourceCount = 0;
+    heightsChanged = false;
+  }
+
+  /**
+   * Marks the column of a changed block for re-sampling.
+   */
+  void markDirty(Block block) {
+    if (block.getWorld() != world) {
+      return;
+    }
+    int column = block.getX() - originX;
+    int row = block.getZ() - originZ;
+    if (column >= 0 && column < size && row >= 0 && row < size) {
+      markDirty(column + row * size);
+    }
+  }
+
+  private void markDirty(int index) {
+    if (!dirty[index]) {
+      dirty[index] = true;
+      dirtyColumns[dirtyCount++] = index;
+    }
+  }
+
+  /**
+   * Drops the current sources. Call before adding the sources of a new pass; the
+   * field keeps pointing at the previous ones until the next search.
+   */
+  void clearSources() {
+    for (int s = 0; s < sourceCount; s++) {
+      isSource[sources[s]] = false;
+    }
+    sourceCount = 0;
+  }
+
+  /**
+   * Adds a position mobs should converge on. Positions outside the arena are ignored.
+   */
+  void addSource(Location location) {
+    if (size == 0 || location.getWorld() != world) {
+      return;
+    }
+    int index = indexOf(location);
+    if (index >= 0 && !isSource[index]) {
+      isSource[index] = true;
+      sources[sourceCount++] = index;
+    }
+  }
+
+  /**
+   * Queues the columns of chunks that were unloaded when last sampled for another try.
+   */
+  void retryUnloaded() {
+    for (int u = 0; u < unloadedCount; u++) {
+      dirtyColumns[dirtyCount++] = unloadedColumns[u];
+    }
+    unloadedCount = 0;
+  }
+
+  /**
+   * Re-samples changed columns until none are left or {@code hasBudget} runs out.
+   * @return True if every column in a loaded chunk is sampled
+   */
+  boolean sample(BooleanSupplier hasBudget) {
+    if (size == 0) {
+      return true;
+    }
+
+    // Columns in unloaded chunks stay dirty and impassable, sampling must not load chunks
+    int sampled = 0;
+    while (dirtyCount > 0) {
+      if (++sampled % SAMPLE_BATCH == 0 && !hasBudget.getAsBoolean()) {
+        return false;
+      }
+      int index = dirtyColumns[--dirtyCount];
+      int x = originX + index % size;
+      int z = originZ + index / size;
+      int height;
+      if (world.isChunkLoaded(x >> 4, z >> 4)) {
+        dirty[index] = false;
+        height = sampleHeight(x, z);
+      } else {
+        height = IMPASSABLE;
+        unloadedColumns[unloadedCount++] = index;
+      }
+      if (heights[index] != height) {
+        heights[index] = height;
+        heightsChanged = true;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Recomputes distances from the current sources, unless neither they nor any
+   * sampled height changed since the last search.
+   */
+  void search() {
+    if (size == 0) {
+      return;
+    }
+    Arrays.sort(sources, 0, sourceCount);
+    if (!heightsChanged && Arrays.equals(sources, 0, sourceCount, searchedSources, 0, searchedSourceCount)) {
+      return;
+    }
+    System.arraycopy(sources, 0, searchedSources, 0, sourceCount);
+    searchedSourceCount = sourceCount;
+    heightsChanged = false;
+
+    Arrays.fill(distances, UNREACHED);
+    for (int s = 0; s < sourceCount; s++) {
+      distances[sources[s]] = 0;
+      queue[s] = sources[s];
+    }
+
+    // Breadth-first search outward from the sources, over reversed walkable steps
+    int head = 0;
+    int tail = sourceCount;
+    while (head < tail) {
+      int current = queue[head++];
+      int column = current % size;
+      int row = current / size;
+      int height = heights[current];
+      for (int s = 0; s < 4; s++) {
+        int neighborColumn = column + STEP_X[s];
+        int neighborRow = row + STEP_Z[s];
+        if (neighborColumn < 0 || neighborColumn >= size || neighborRow < 0 || neighborRow >= size) {
+          continue;
+        }
+
+        int neighbor = neighborColumn + neighborRow * size;
+        if (distances[neighbor] != UNREACHED || !canStep(heights[neighbor], height)) {
+          continue;
+        }
+        distances[neighbor] = distances[current] + 1;
+        queue[tail++] = neighbor;
+      }
+    }
+  }
+
+  /**
+   * Follows the gradient from a location for up to {@code steps} columns.
+   * @return The waypoint to walk to, or null if the location is outside the
+   *   field or cannot reach any source
+   */
+  Location waypoint(Location from, int steps) {
+    if (size == 0 || from.getWorld() != world) {
+      return null;
+    }
+    int current = indexOf(from);
+    if (current < 0 || distances[current] == UNREACHED) {
+      return null;
+    }
+
+    for (int step = 0; step < steps && distances[current] > 0; step++) {
+      int column = current % size;
+      int row = current / size;
+      int next = current;
+      for (int s = 0; s < 4; s++) {
+        int neighborColumn = column + STEP_X[s];
+        int neighborRow = row + STEP_Z[s];
+        if (neighborColumn < 0 || neighborColumn >= size || neighborRow < 0 || neighborRow >= size) {
+          continue;
+        }
+        int neighbor = neighborColumn + neighborRow * size;
+        if (distances[neighbor] == distances[current] - 1 && canStep(heights[current], heights[neighbor])) {
+          next = neighbor;
+          break;
+        }
+      }
+      if (next == current) {
+        break;
+      }
+      current = next;
+    }
+
+    return new Location(
+      world,
+      originX + current % size + 0.5,
+      heights[current],
+      originZ + current / size + 0.5
+    );
+  }
+
+  private int indexOf(Location location) {
+    int column = location.getBlockX() - originX;
+    int row = location.getBlockZ() - originZ;
+    if (column < 0 || column >= size || row < 0 || row >= size) {
+      return -1;
+    }
+    return column + row * size;
+  }
+
+  /**
+   * Gets the height a mob stands at in a column, or {@link #IMPASSABLE} for lava.
+   */
+  private int sampleHeight(int x, int z) {
+    Block surface = world.getHighestBlockAt(x, z);
+    if (surface.getType() == Material.LAVA) {
+      return IMPASSABLE;
+    }
+    return surface.getY() + 1;
+  }
+
+  private static boolean canStep(int fromHeight, int toHeight) {
+    if (fromHeight == IMPASSABLE || toHeight == IMPASSABLE) {
+      return false;
+    }
+    int rise = toHeight - fromHeight;
+    return rise <= MAX_CLIMB && -rise <= MAX_DROP;
+  }
+}
@@ -2,24 +2,26 @@ package city.emerald.bastion.wave;
 
 import java.util.List;
 
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Creeper;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.Villager;
-import org.bukkit.scheduler.BukkitTask;
 
 import city.emerald.bastion.BarrierManager;
 import city.emerald.bastion.Bastion;
+import city.emerald.bastion.BastionTicker;
 
 public class LightningManager {
 
     private final Bastion plugin;
+    private final BastionTicker ticker;
     private final BarrierManager barrierManager;
-    private BukkitTask lightningTask;
+    private BastionTicker.Task lightningTask;
+    private int lightningRuns;
 
-    public LightningManager(Bastion plugin, BarrierManager barrierManager) {
+    public LightningManager(Bastion plugin, BastionTicker ticker, BarrierManager barrierManager) {
         this.plugin = plugin;
+        this.ticker = ticker;
         this.barrierManager = barrierManager;
     }
 
@@ -33,8 +35,15 @@ public class LightningManager {
             lightningTask.cancel();
         }
 
-        // Start a new repeating task that runs every 5 seconds (100 ticks).
-        lightningTask = Bukkit.getScheduler().runTaskTimer(plugin, this::strikeRandomTarget, 100L, 100L);
+        // Start a new repeating task that runs every 5 seconds (100 ticks) at full
+        // quality, and less often while the server is overloaded.
+        lightningRuns = 0;
+        lightningTask = ticker.runTimer(BastionTicker.Phase.COMBAT, 100L, 100L, () -> {
+            int multiplier = plugin.getQualityGovernor().getQuality().getIntervalMultiplier();
+            if (++lightningRuns % multiplier == 0) {
+                strikeRandomTarget();
+            }
+        });
     }
 
     /**
@@ -50,7 +59,7 @@ public class LightningManager {
 
     /**
      * The core logic that finds a target and strikes it with lightning.
-     * This will be called by the repeating Bukkit task.
+     * This will be called by the repeating ticker job.
      */
     private void strikeRandomTarget() {
         barrierManager.getVillageManager().getVillageCenter().ifPresent(center -> {
@@ -77,7 +86,7 @@ public class LightningManager {
                 Entity target = potentialTargets.get(new java.util.Random().nextInt(potentialTargets.size()));
                 
                 // Use a real lightning strike for gameplay effects
-                target.getWorld().strikeLightning(target.getLocation());
+                ticker.runFor(target, () -> target.getWorld().strikeLightning(target.getLocation()));
             }
         });
     }
@@ -0,0 +1,499 @@
+package city.emerald.bastion.wave;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongConsumer;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.LivingEntity;
+
+import city.emerald.bastion.Bastion;
+import city.emerald.bastion.BastionConfig;
+import city.emerald.bastion.BastionTicker;
+
+/**
+ * Line-of-sight checks for wave mobs, raycast off the arena thread.
+ * Rays are traced voxel by voxel on an async worker through chunk snapshots of the
+ * arena, each taken once and retaken only after a block in its chunk changed.
+ * Results are cached per viewer, target and pair of 4-block eye cells for
+ * {@code mob_ai.line_of_sight_cache_ticks}, so mobs and targets moving a block or
+ * two keep their result. A block change only drops the cached results whose traced
+ * ray passes through the changed block, found through an index of cached rays by
+ * chunk. Block changes are fed in through {@link #invalidate(Block)} by
+ * {@link BlockChangeListener}. Blocks count as obstructions when their material is
+ * solid, which approximates the collision shapes vanilla raycasts against.
+ * Arena thread only, apart from the tracing itself.
+ */
+final class LineOfSightService {
+
+  private static final int CACHE_PRUNE_THRESHOLD = 4096;
+  // Eye positions are keyed by cells of 1 << EYE_CELL_SHIFT blocks
+  private static final int EYE_CELL_SHIFT = 2;
+
+  private final Bastion plugin;
+  private final BastionTicker ticker;
+  private long cacheTicks;
+  private final Map<PairKey, CachedResult> cache;
+  // Cached results by every chunk their ray passes through; may hold replaced or
+  // expired results, which are skipped and dropped on the next visit
+  private final Map<Long, List<CachedResult>> resultsByChunk;
+  private int indexedResults;
+  // Snapshots of arena chunks, removed when a block in the chunk changes and retaken
+  // on next use; handed to the worker, which only reads them
+  private final Map<Long, ChunkSnapshot> snapshots;
+  private World world;
+  // Bumped by clear(), results traced before a clear are not cached
+  private long epoch;
+
+  LineOfSightService(Bastion plugin, BastionTicker ticker) {
+    this.plugin = plugin;
+    this.ticker = ticker;
+    this.cache = new HashMap<>();
+    this.resultsByChunk = new HashMap<>();
+    this.snapshots = new HashMap<>();
+  }
+
+  /**
+   * Applies the cache duration of a configuration snapshot, dropping cached results.
+   */
+  void reloadConfiguration(BastionConfig settings) {
+    this.cacheTicks = settings.lineOfSightCacheTicks;
+    clear();
+  }
+
+  /**
+   * Finds the first candidate the viewer cannot see. Cached results are used
+   * directly; the remaining candidates are raycast on a worker thread.
+   * @param viewer The mob looking for a target
+   * @param candidates Candidates in order of preference, all in the viewer's world
+   * @return Future completed on the arena thread with the first hidden candidate, or null
+   */
+  CompletableFuture<LivingEntity> findFirstHidden(LivingEntity viewer, List<LivingEntity> candidates) {
+    useWorld(viewer.getWorld());
+    int now = Bukkit.getCurrentTick();
+    Location eye = viewer.getEyeLocation();
+    List<Ray> rays = new ArrayList<>();
+
+    for (LivingEntity candidate : candidates) {
+      Location targetEye = candidate.getEyeLocation();
+      PairKey key = new PairKey(viewer.getUniqueId(), candidate.getUniqueId(), cellKey(eye), cellKey(targetEye));
+      CachedResult cached = cache.get(key);
+      if (cached != null && cached.expiresAt > now) {
+        if (!cached.visible) {
+          if (rays.isEmpty()) {
+            return CompletableFuture.completedFuture(candidate);
+          }
+          rays.add(new Ray(candidate, null, eye, targetEye, true));
+          break;
+        }
+        continue;
+      }
+      rays.add(new Ray(candidate, key, eye, targetEye, false));
+    }
+
+    if (rays.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    Map<Long, ChunkSnapshot> chunks = snapshotsFor(rays);
+    int minY = world.getMinHeight();
+    int maxY = world.getMaxHeight();
+    long submittedEpoch = epoch;
+
+    return CompletableFuture
+      .supplyAsync(
+        () -> {
+          for (Ray ray : rays) {
+            if (ray.knownHidden) {
+              return ray.target;
+            }
+            ray.visible = trace(ray, chunks, minY, maxY);
+            if (!ray.visible) {
+              return ray.target;
+            }
+          }
+          return null;
+        },
+        task -> Bukkit.getAsyncScheduler().runNow(plugin, scheduled -> task.run())
+      )
+      .thenApplyAsync(
+        hidden -> {
+          if (submittedEpoch == epoch) {
+            storeResults(rays, chunks);
+          }
+          return hidden;
+        },
+        ticker::execute
+      );
+  }
+
+  /**
+   * Drops all snapshots and cached results.
+   */
+  void clear() {
+    cache.clear();
+    resultsByChunk.clear();
+    indexedResults = 0;
+    snapshots.clear();
+    epoch++;
+  }
+
+  private void useWorld(World viewerWorld) {
+    if (world != viewerWorld) {
+      clear();
+      world = viewerWorld;
+    }
+  }
+
+  /**
+   * Caches the traced results whose chunks did not change while they were traced.
+   */
+  private void storeResults(List<Ray> rays, Map<Long, ChunkSnapshot> traced) {
+    if (cacheTicks == 0) {
+      return;
+    }
+    int now = Bukkit.getCurrentTick();
+    for (Ray ray : rays) {
+      if (ray.key != null && ray.visible != null && isCurrent(ray, traced)) {
+        store(ray, now);
+      }
+    }
+  }
+
+  private boolean isCurrent(Ray ray, Map<Long, ChunkSnapshot> traced) {
+    boolean[] current = { true };
+    forEachChunk(ray.fromX, ray.fromZ, ray.toX, ray.toZ, key -> {
+      if (snapshots.get(key) != traced.get(key)) {
+        current[0] = false;
+      }
+    });
+    return current[0];
+  }
+
+  private void store(Ray ray, int now) {
+    if (cache.size() >= CACHE_PRUNE_THRESHOLD) {
+      cache.values().removeIf(result -> result.expiresAt <= now);
+    }
+    if (indexedResults >= 2 * CACHE_PRUNE_THRESHOLD) {
+      pruneIndex(now);
+    }
+
+    CachedResult result = new CachedResult(ray, now + cacheTicks);
+    cache.put(ray.key, result);
+    forEachChunk(ray.fromX, ray.fromZ, ray.toX, ray.toZ, key -> {
+      resultsByChunk.computeIfAbsent(key, k -> new ArrayList<>()).add(result);
+      indexedResults++;
+    });
+  }
+
+  /**
+   * Drops index entries of results that were replaced, invalidated or expired.
+   */
+  private void pruneIndex(int now) {
+    indexedResults = 0;
+    resultsByChunk.values().removeIf(results -> {
+      results.removeIf(result -> !isCurrent(result, now));
+      indexedResults += results.size();
+      return results.isEmpty();
+    });
+  }
+
+  private boolean isCurrent(CachedResult result, int now) {
+    return result.expiresAt > now && cache.get(result.key) == result;
+  }
+
+  /**
+   * Collects snapshots of every loaded chunk the rays pass through, taking new
+   * snapshots only for chunks not already held. Chunks owned by another region
+   * are left out and treated as open.
+   */
+  private Map<Long, ChunkSnapshot> snapshotsFor(List<Ray> rays) {
+    Map<Long, ChunkSnapshot> chunks = new HashMap<>();
+    for (Ray ray : rays) {
+      forEachChunk(ray.fromX, ray.fromZ, ray.toX, ray.toZ, key -> {
+        if (chunks.containsKey(key)) {
+          return;
+        }
+
+        ChunkSnapshot snapshot = snapshots.get(key);
+        int chunkX = (int) (key >> 32);
+        int chunkZ = (int) key;
+        if (
+          snapshot == null &&
+          world.isChunkLoaded(chunkX, chunkZ) &&
+          Bukkit.isOwnedByCurrentRegion(world, chunkX, chunkZ)
+        ) {
+          snapshot = world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false);
+          snapshots.put(key, snapshot);
+        }
+        chunks.put(key, snapshot);
+      });
+    }
+    return chunks;
+  }
+
+  /**
+   * Walks every voxel the ray passes through (Amanatides and Woo).
+   * @return True if no solid block is in the way
+   */
+  private static boolean trace(Ray ray, Map<Long, ChunkSnapshot> chunks, int minY, int maxY) {
+    double dx = ray.toX - ray.fromX;
+    double dy = ray.toY - ray.fromY;
+    double dz = ray.toZ - ray.fromZ;
+
+    int x = (int) Math.floor(ray.fromX);
+    int y = (int) Math.floor(ray.fromY);
+    int z = (int) Math.floor(ray.fromZ);
+    int endX = (int) Math.floor(ray.toX);
+    int endY = (int) Math.floor(ray.toY);
+    int endZ = (int) Math.floor(ray.toZ);
+
+    int stepX = (int) Math.signum(dx);
+    int stepY = (int) Math.signum(dy);
+    int stepZ = (int) Math.signum(dz);
+    // Ray parameter t runs from 0 to 1; next boundary crossing and spacing per axis
+    double deltaX = stepX != 0 ? Math.abs(1.0 / dx) : Double.POSITIVE_INFINITY;
+    double deltaY = stepY != 0 ? Math.abs(1.0 / dy) : Double.POSITIVE_INFINITY;
+    double deltaZ = stepZ != 0 ? Math.abs(1.0 / dz) : Double.POSITIVE_INFINITY;
+    double nextX = boundary(ray.fromX, x, stepX, deltaX);
+    double nextY = boundary(ray.fromY, y, stepY, deltaY);
+    double nextZ = boundary(ray.fromZ, z, stepZ, deltaZ);
+
+    while (true) {
+      if (isObstruction(chunks, x, y, z, minY, maxY)) {
+        return false;
+      }
+      if (x == endX && y == endY && z == endZ) {
+        return true;
+      }
+
+      if (nextX <= nextY && nextX <= nextZ) {
+        if (nextX > 1.0) return true;
+        x += stepX;
+        nextX += deltaX;
+      } else if (nextY <= nextZ) {
+        if (nextY > 1.0) return true;
+        y += stepY;
+        nextY += deltaY;
+      } else {
+        if (nextZ > 1.0) return true;
+        z += stepZ;
+        nextZ += deltaZ;
+      }
+    }
+  }
+
+  private static double boundary(double start, int block, int step, double delta) {
+    if (step > 0) {
+      return (block + 1 - start) * delta;
+    }
+    if (step < 0) {
+      return (start - block) * delta;
+    }
+    return Double.POSITIVE_INFINITY;
+  }
+
+  private static boolean isObstruction(Map<Long, ChunkSnapshot> chunks, int x, int y, int z, int minY, int maxY) {
+    if (y < minY || y >= maxY) {
+      return false;
+    }
+    // Chunks without a snapshot are treated as open, they are outside the arena in practice
+    ChunkSnapshot snapshot = chunks.get(chunkKey(x >> 4, z >> 4));
+    if (snapshot == null) {
+      return false;
+    }
+    Material material = snapshot.getBlockType(x & 15, y, z & 15);
+    return material.isSolid();
+  }
+
+  /**
+   * Calls {@code action} with the key of every chunk in the ray's horizontal bounds.
+   */
+  private static void forEachChunk(double fromX, double fromZ, double toX, double toZ, LongConsumer action) {
+    int minChunkX = (int) Math.floor(Math.min(fromX, toX)) >> 4;
+    int maxChunkX = (int) Math.floor(Math.max(fromX, toX)) >> 4;
+    int minChunkZ = (int) Math.floor(Math.min(fromZ, toZ)) >> 4;
+    int maxChunkZ = (int) Math.floor(Math.max(fromZ, toZ)) >> 4;
+    for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+      for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+        action.accept(chunkKey(chunkX, chunkZ));
+      }
+    }
+  }
+
+  private static long chunkKey(int chunkX, int chunkZ) {
+    return ((long) chunkX << 32) ^ (chunkZ & 0xFFFFFFFFL);
+  }
+
+  private static long cellKey(Location location) {
+    long x = (location.getBlockX() >> EYE_CELL_SHIFT) & 0x3FFFFFFL;
+    long y = (location.getBlockY() >> EYE_CELL_SHIFT) & 0xFFFL;
+    long z = (location.getBlockZ() >> EYE_CELL_SHIFT) & 0x3FFFFFFL;
+    return (x << 38) | (z << 12) | y;
+  }
+
+  /**
+   * Retakes the snapshot of a changed block's chunk on next use, and drops the
+   * cached results whose ray passes through the block.
+   */
+  void invalidate(Block block) {
+    if (block.getWorld() != world) {
+      return;
+    }
+    long chunk = chunkKey(block.getX() >> 4, block.getZ() >> 4);
+    snapshots.remove(chunk);
+    List<CachedResult> results = resultsByChunk.get(chunk);
+    if (results == null) {
+      return;
+    }
+
+    int now = Bukkit.getCurrentTick();
+    int x = block.getX();
+    int y = block.getY();
+    int z = block.getZ();
+    int before = results.size();
+    results.removeIf(result -> {
+      if (!isCurrent(result, now)) {
+        return true;
+      }
+      if (result.crosses(x, y, z)) {
+        cache.remove(result.key);
+        return true;
+      }
+      return false;
+    });
+    indexedResults -= before - results.size();
+    if (results.isEmpty()) {
+      resultsByChunk.remove(chunk);
+    }
+  }
+
+  /**
+   * A ray from a viewer's eye to a candidate's eye. {@code visible} is written by
+   * the worker and read back on the arena thread once the future completes.
+   */
+  private static final class Ray {
+    final LivingEntity target;
+    final PairKey key;
+    final double fromX;
+    final double fromY;
+    final double fromZ;
+    final double toX;
+    final double toY;
+    final double toZ;
+    final boolean knownHidden;
+    Boolean visible;
+
+    Ray(LivingEntity target, PairKey key, Location from, Location to, boolean knownHidden) {
+      this.target = target;
+      this.key = key;
+      this.fromX = from.getX();
+      this.fromY = from.getY();
+      this.fromZ = from.getZ();
+      this.toX = to.getX();
+      this.toY = to.getY();
+      this.toZ = to.getZ();
+      this.knownHidden = knownHidden;
+    }
+  }
+
+  private static final class PairKey {
+    private final UUID viewer;
+    private final UUID target;
+    private final long viewerCell;
+    private final long targetCell;
+
+    PairKey(UUID viewer, UUID target, long viewerCell, long targetCell) {
+      this.viewer = viewer;
+      this.target = target;
+      this.viewerCell = viewerCell;
+      this.targetCell = targetCell;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof PairKey key)) {
+        return false;
+      }
+      return viewerCell == key.viewerCell
+        && targetCell == key.targetCell
+        && viewer.equals(key.viewer)
+        && target.equals(key.target);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(viewer, target, viewerCell, targetCell);
+    }
+  }
+
+  /**
+   * A cached result and the eye-to-eye ray it was traced along.
+   */
+  private static final class CachedResult {
+    final PairKey key;
+    final boolean visible;
+    final long expiresAt;
+    final double fromX;
+    final double fromY;
+    final double fromZ;
+    final double toX;
+    final double toY;
+    final double toZ;
+
+    CachedResult(Ray ray, long expiresAt) {
+      this.key = ray.key;
+      this.visible = ray.visible;
+      this.expiresAt = expiresAt;
+      this.fromX = ray.fromX;
+      this.fromY = ray.fromY;
+      this.fromZ = ray.fromZ;
+      this.toX = ray.toX;
+      this.toY = ray.toY;
+      this.toZ = ray.toZ;
+    }
+
+    /**
+     * Checks whether the ray touches the block's cell, with the slab test over the
+     * segment's parameter range.
+     */
+    boolean crosses(int x, int y, int z) {
+      double[] range = { 0.0, 1.0 };
+      return (
+        clip(fromX, toX, x, range) &&
+        clip(fromY, toY, y, range) &&
+        clip(fromZ, toZ, z, range)
+      );
+    }
+
+    private static boolean clip(double from, double to, int block, double[] range) {
+      double delta = to - from;
+      if (delta == 0.0) {
+        return from >= block && from <= block + 1;
+      }
+      double enter = (block - from) / delta;
+      double exit = (block + 1 - from) / delta;
+      if (enter > exit) {
+        double swap = enter;
+        enter = exit;
+        exit = swap;
+      }
+      range[0] = Math.max(range[0], enter);
+      range[1] = Math.min(range[1], exit);
+      return range[0] <= range[1];
+    }
+  }
+}
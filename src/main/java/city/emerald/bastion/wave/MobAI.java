@@ -1,131 +1,436 @@
 package city.emerald.bastion.wave;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import com.destroystokyo.paper.entity.ai.MobGoals;
 
 import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
+import org.bukkit.NamespacedKey;
 import org.bukkit.World;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
 import org.bukkit.entity.Creature;
 import org.bukkit.entity.Creeper;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Flying;
 import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Mob;
 import org.bukkit.entity.Monster;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.Skeleton;
 import org.bukkit.entity.Slime;
 import org.bukkit.entity.Villager;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
+import org.bukkit.event.HandlerList;
 import org.bukkit.event.entity.EntityTargetEvent;
 import org.bukkit.event.entity.EntityTargetLivingEntityEvent;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
 
 import city.emerald.bastion.Bastion;
+import city.emerald.bastion.BastionConfig;
+import city.emerald.bastion.BastionLog;
+import city.emerald.bastion.BastionTicker;
 import city.emerald.bastion.VillageManager;
 import city.emerald.bastion.game.GameStateManager;
 import net.md_5.bungee.api.ChatColor;
 
-public class MobAI implements Listener {
+public class MobAI {
+
+  // Fastest a target is expected to move, in blocks per tick; sprint-jumping is about 0.4
+  private static final double MAX_TARGET_SPEED = 0.6;
+  // Vanilla follow range of mobs without the attribute
+  private static final double DEFAULT_FOLLOW_RANGE = 16.0;
 
   private final Bastion plugin;
+  private final BastionTicker ticker;
   private final VillageManager villageManager;
   private final GameStateManager gameStateManager;
+  private final WaveMobRegistry mobRegistry;
+  private final TargetGrid targetGrid;
+  private final LineOfSightService lineOfSight;
+  private final FlowField flowField;
+  private final PathRequestService pathRequests;
+  private final BlockChangeListener blockChangeListener;
   private final Random random;
 
-  private final double playerTargetWeight;
-  private final double villagerTargetWeight;
-  private final double targetSwitchChance;
-  private final double maxTargetDistance;
-  private final long scanIntervalTicks;
-
-  private final int creeperVisionRadius;
+  private final NamespacedKey targetGoalKey;
+  private final NamespacedKey kiteGoalKey;
+
+  // Settings from the configuration snapshot, see reloadConfiguration()
+  private int creeperVisionRadius;
+  private double playerTargetWeight;
+  private double villagerTargetWeight;
+  private double targetSwitchChance;
+  private double maxTargetDistance;
+  private double targetGridCellSize;
+  private int updateBuckets;
+  private int maxUpdatesPerTick;
+  private boolean flowFieldEnabled;
+  private double flowFieldFollowDistance;
+  private int flowFieldWaypointDistance;
+  // Grid positions are up to one pass old; queries widen by how far a target can move since
+  private double gridQuerySlack;
+
+  // Ticks since the AI task started, selects the bucket processed each tick
+  private long aiTick;
+  // World the target grid was last built for
+  private World arenaWorld;
+  // Target updates done by goals this tick, capped by max_updates_per_tick
+  private int updatesThisTick;
+  // Present while a game is running, see arm()
+  private BastionTicker.Task aiTask;
+  // Wave creepers by scan bucket, one per tick of mob_ai.scan_interval_ticks, so a
+  // tick only visits the creepers of its own bucket
+  private List<List<Creeper>> scanBuckets;
+  // Creepers due for a scan; those the budget leaves over are scanned first next tick
+  private final Set<Creeper> scanQueue;
+  // Set while the flow field is being sampled and searched in the AI phase's spare time
+  private boolean flowFieldQueued;
 
   public MobAI(
     Bastion plugin,
+    BastionTicker ticker,
     VillageManager villageManager,
-    GameStateManager gameStateManager
+    GameStateManager gameStateManager,
+    WaveMobRegistry mobRegistry
   ) {
     this.plugin = plugin;
+    this.ticker = ticker;
     this.villageManager = villageManager;
     this.gameStateManager = gameStateManager;
+    this.mobRegistry = mobRegistry;
+    this.targetGrid = new TargetGrid();
+    this.lineOfSight = new LineOfSightService(plugin, ticker);
+    this.flowField = new FlowField();
+    this.pathRequests = new PathRequestService();
+    this.blockChangeListener = new BlockChangeListener(ticker::execute, lineOfSight::invalidate, flowField::markDirty);
+    this.targetGoalKey = new NamespacedKey(plugin, "wave_target");
+    this.kiteGoalKey = new NamespacedKey(plugin, "ranged_kite");
     this.random = new Random();
+    this.scanBuckets = new ArrayList<>();
+    this.scanQueue = new LinkedHashSet<>();
+    reloadConfiguration();
+  }
 
-    this.creeperVisionRadius = plugin.getIntSafe("mob_ai.creeper_vision_radius", 10);
-    this.playerTargetWeight = plugin.getDoubleSafe("mob_ai.player_target_weight", 0.7);
-    this.villagerTargetWeight = plugin.getDoubleSafe("mob_ai.villager_target_weight", 0.3);
-    this.targetSwitchChance = plugin.getDoubleSafe("mob_ai.target_switch_chance", 0.1);
-    this.maxTargetDistance = plugin.getDoubleSafe("mob_ai.max_target_distance", 50.0);
-    this.scanIntervalTicks = plugin.getLongSafe("mob_ai.scan_interval_ticks", 100);
-
-    // Start AI update task
-    startAIUpdateTask();
-
-    // Start the periodic task
-    new BukkitRunnable() {
-      @Override
-      public void run() {
-        scanForTargets();
+  /**
+   * Applies the {@code mob_ai.*} settings of the current configuration snapshot.
+   * Called on construction and whenever the configuration changes; creepers are
+   * spread over the new scan buckets and mobs pick up the new update interval on
+   * their next update.
+   */
+  public void reloadConfiguration() {
+    BastionConfig settings = plugin.getSettings();
+    this.creeperVisionRadius = settings.creeperVisionRadius;
+    this.playerTargetWeight = settings.playerTargetWeight;
+    this.villagerTargetWeight = settings.villagerTargetWeight;
+    this.targetSwitchChance = settings.targetSwitchChance;
+    this.maxTargetDistance = settings.maxTargetDistance;
+    this.targetGridCellSize = settings.targetGridCellSize;
+    this.updateBuckets = settings.updateBuckets;
+    this.maxUpdatesPerTick = settings.maxUpdatesPerTick;
+    this.flowFieldFollowDistance = settings.flowFieldFollowDistance;
+    this.flowFieldWaypointDistance = settings.flowFieldWaypointDistance;
+    this.gridQuerySlack = MAX_TARGET_SPEED * updateBuckets;
+    if (flowFieldEnabled && !settings.flowFieldEnabled) {
+      flowField.reset();
+    }
+    this.flowFieldEnabled = settings.flowFieldEnabled;
+    lineOfSight.reloadConfiguration(settings);
+    pathRequests.reloadConfiguration(settings);
+
+    int scanBucketCount = (int) Math.min(Integer.MAX_VALUE, settings.scanIntervalTicks);
+    if (scanBucketCount != scanBuckets.size()) {
+      List<List<Creeper>> previous = scanBuckets;
+      scanBuckets = new ArrayList<>(scanBucketCount);
+      for (int i = 0; i < scanBucketCount; i++) {
+        scanBuckets.add(new ArrayList<>());
+      }
+      for (List<Creeper> bucket : previous) {
+        for (Creeper creeper : bucket) {
+          addToScanBucket(creeper);
+        }
       }
-    }.runTaskTimer(plugin, 0L, scanIntervalTicks);
+    }
   }
 
-  public void registerEvents() {
-    Bukkit.getPluginManager().registerEvents(this, plugin);
+  /**
+   * Gets the number of ticks between target updates of a mob.
+   */
+  int getUpdateInterval() {
+    return updateBuckets;
   }
 
-  private void startAIUpdateTask() {
-    new BukkitRunnable() {
-      @Override
-      public void run() {
-        if (gameStateManager.getCurrentState() != GameStateManager.GameState.ACTIVE) {
-          return;
-        }
-        updateAllMobAI();
-      }
+  /**
+   * Starts the AI for a game: registers the block listener that keeps the
+   * caches current, and schedules the job that runs the shared part of the AI every
+   * tick, rebuilding the targets once per pass and scanning one bucket of creepers.
+   * Target updates and skeleton kiting run in each mob's own goals (see
+   * {@link #attachGoals(Mob)}), which draw on the per-tick budget reset here.
+   */
+  public void arm() {
+    if (aiTask != null) {
+      return;
+    }
+    Bukkit.getPluginManager().registerEvents(blockChangeListener, plugin);
+    aiTask = ticker.runTimer(BastionTicker.Phase.AI, 1L, 1L, this::tickAI);
+  }
+
+  /**
+   * Stops the AI between games and drops every cache, since block changes are no
+   * longer tracked.
+   */
+  public void disarm() {
+    if (aiTask == null) {
+      return;
+    }
+    aiTask.cancel();
+    aiTask = null;
+    HandlerList.unregisterAll(blockChangeListener);
+    lineOfSight.clear();
+    targetGrid.clear();
+    for (List<Creeper> bucket : scanBuckets) {
+      bucket.clear();
     }
-      .runTaskTimer(plugin, 20L, 20L); // Update every second
+    scanQueue.clear();
+    flowField.reset();
+    pathRequests.prune();
+    arenaWorld = null;
   }
 
-  private void updateAllMobAI() {
-    if (!villageManager.getVillageCenter().isPresent()) {
+  private void tickAI() {
+    long tick = aiTick++;
+    updatesThisTick = 0;
+    Optional<Location> center = villageManager.getVillageCenter();
+    if (!center.isPresent() || mobRegistry.size() == 0) {
       return;
     }
 
-    Location center = villageManager.getVillageCenter().get();
+    // Targets are collected once per update interval
+    if (tick % updateBuckets == 0 || arenaWorld != center.get().getWorld()) {
+      rebuildTargets(center.get());
+      pathRequests.prune();
+    }
+
+    pathRequests.issuePending();
+    queueScanBucket(tick);
+    scanQueued();
+  }
+
+  /**
+   * Adds Bastion's targeting goal to a wave mob, and the kiting goal to skeletons.
+   * The server's goal selector then schedules them alongside the vanilla goals.
+   */
+  public void attachGoals(Mob mob) {
+    if (!isHostileMob(mob)) {
+      return;
+    }
+
+    if (mob instanceof Creeper creeper) {
+      addToScanBucket(creeper);
+    }
+
+    MobGoals goals = Bukkit.getMobGoals();
+    goals.addGoal(mob, 1, new WaveTargetGoal(this, mob, targetGoalKey));
+    if (mob instanceof Skeleton skeleton) {
+      goals.addGoal(skeleton, 1, new RangedKiteGoal(this, skeleton, kiteGoalKey));
+    }
+  }
+
+  private void addToScanBucket(Creeper creeper) {
+    scanBuckets.get(Math.floorMod(creeper.getEntityId(), scanBuckets.size())).add(creeper);
+  }
+
+  /**
+   * Claims one target update from this tick's budget.
+   * @return False if targets should not be updated right now
+   */
+  boolean tryAcquireUpdate() {
+    if (gameStateManager.getCurrentState() != GameStateManager.GameState.ACTIVE || arenaWorld == null) {
+      return false;
+    }
+    // Goals of mobs outside the arena region tick on another thread and keep their target
+    if (!ticker.isArenaThread()) {
+      return false;
+    }
+    if (maxUpdatesPerTick > 0 && updatesThisTick >= maxUpdatesPerTick) {
+      return false;
+    }
+    updatesThisTick++;
+    return true;
+  }
+
+  /**
+   * Queues the creepers of this tick's scan bucket, dropping those that left the world.
+   */
+  private void queueScanBucket(long tick) {
+    List<Creeper> bucket = scanBuckets.get((int) (tick % scanBuckets.size()));
+    bucket.removeIf(creeper -> !creeper.isValid());
+    scanQueue.addAll(bucket);
+  }
+
+  /**
+   * Scans queued creepers until {@code max_updates_per_tick} were scanned or the AI
+   * phase's time budget ran out. The rest stay queued and go first on the next tick,
+   * so every creeper is still scanned once per pass and only the timing shifts.
+   */
+  private void scanQueued() {
+    int budget = maxUpdatesPerTick > 0 ? maxUpdatesPerTick : Integer.MAX_VALUE;
+    int processed = 0;
+    Iterator<Creeper> queued = scanQueue.iterator();
+    while (queued.hasNext() && processed < budget && (processed == 0 || ticker.hasBudget())) {
+      Creeper creeper = queued.next();
+      queued.remove();
+      // Mobs outside the arena region belong to another thread
+      if (!creeper.isValid() || !creeper.hasAI() || !Bukkit.isOwnedByCurrentRegion(creeper)) {
+        continue;
+      }
+      if (scanForTargets(creeper)) {
+        processed++;
+      }
+    }
+  }
+
+  /**
+   * Collects the players and villagers in the village world into the target grid,
+   * and queues a flow field update toward them.
+   */
+  private void rebuildTargets(Location center) {
     World world = center.getWorld();
+    arenaWorld = world;
+    targetGrid.clear();
+    if (flowFieldEnabled) {
+      flowField.setArena(center, plugin.getSettings().barrierRadius);
+      flowField.clearSources();
+    }
 
-    // Process all hostile mobs in the world
-    world
-      .getLivingEntities()
-      .stream()
-      .filter(this::isHostileMob)
-      .forEach(this::updateMobAI);
+    for (Player player : world.getPlayers()) {
+      if (player.isValid() && !player.isDead()) {
+        addTarget(player);
+      }
+    }
+    for (Villager villager : villageManager.getRegisteredVillagers()) {
+      if (villager.isValid() && !villager.isDead()) {
+        addTarget(villager);
+      }
+    }
+
+    targetGrid.build(targetGridCellSize);
+    if (flowFieldEnabled) {
+      flowField.retryUnloaded();
+      queueFlowFieldUpdate();
+    }
   }
 
-  private void updateMobAI(LivingEntity mob) {
-    // Skip if mob already has a valid target
-    if (hasValidTarget(mob)) {
-      // Chance to switch targets
-      if (random.nextDouble() > targetSwitchChance) {
-        return;
+  /**
+   * Samples changed columns in the AI phase's leftover budget, then searches from
+   * the current sources. Until the first search completes the field covers no mob,
+   * and mobs path to their targets on their own.
+   */
+  private void queueFlowFieldUpdate() {
+    if (flowFieldQueued) {
+      return;
+    }
+    flowFieldQueued = true;
+    ticker.defer(BastionTicker.Phase.AI, () -> {
+      if (!flowField.sample(ticker::hasBudget)) {
+        return false;
       }
+      flowField.search();
+      flowFieldQueued = false;
+      return true;
+    });
+  }
+
+  private void addTarget(LivingEntity target) {
+    targetGrid.add(target);
+    if (flowFieldEnabled) {
+      flowField.addSource(target.getLocation());
+    }
+  }
+
+  void updateMobAI(LivingEntity mob) {
+    // Keep a valid target, with a chance to switch targets
+    boolean keepTarget = hasValidTarget(mob) && random.nextDouble() > targetSwitchChance;
+
+    // The target grid is up to one pass old, so candidates may have died or logged out
+    LivingEntity target = keepTarget ? ((Creature) mob).getTarget() : findBestTarget(mob);
+    if (target != null && (!target.isValid() || target.isDead())) {
+      target = null;
+    }
+
+    // Far mobs walk the shared flow field instead of pathfinding to the target themselves
+    if (
+      flowFieldEnabled &&
+      mob instanceof Mob navigator &&
+      isFarFrom(mob, target) &&
+      !hasTargetInFollowRange(navigator) &&
+      followFlowField(navigator)
+    ) {
+      return;
+    }
+
+    if (keepTarget) {
+      return;
     }
 
-    // Find new target
-    LivingEntity target = findBestTarget(mob);
     if (target != null) {
       if (mob instanceof Creature) {
         ((Creature) mob).setTarget(target);
       }
     }
+  }
+
+  private boolean isFarFrom(LivingEntity mob, LivingEntity target) {
+    return (
+      target == null ||
+      mob.getLocation().distanceSquared(target.getLocation()) > flowFieldFollowDistance * flowFieldFollowDistance
+    );
+  }
+
+  /**
+   * Checks whether a player or villager is within the mob's follow range, where its
+   * vanilla targeting goals would pick one up again. Such mobs keep their own
+   * targeting rather than following the flow field.
+   */
+  private boolean hasTargetInFollowRange(Mob mob) {
+    double range = getFollowRange(mob);
+    Location location = mob.getLocation();
+    return targetGrid.findFirst(
+      location,
+      range + gridQuerySlack,
+      candidate -> candidate.isValid() && !candidate.isDead() && isWithin(candidate, location, range)
+    ) != null;
+  }
 
-    // Special behavior for ranged mobs
-    if (mob instanceof Skeleton) {
-      handleRangedMobBehavior((Skeleton) mob);
+  private static double getFollowRange(Mob mob) {
+    AttributeInstance followRange = mob.getAttribute(Attribute.GENERIC_FOLLOW_RANGE);
+    return followRange != null ? followRange.getValue() : DEFAULT_FOLLOW_RANGE;
+  }
+
+  /**
+   * Sends a mob a few blocks down the flow field. Its target, out of follow range,
+   * is dropped so the vanilla goals do not pathfind across the arena to it in parallel.
+   * @return True if the mob is covered by the flow field
+   */
+  private boolean followFlowField(Mob mob) {
+    Location waypoint = flowField.waypoint(mob.getLocation(), flowFieldWaypointDistance);
+    if (waypoint == null) {
+      return false;
+    }
+
+    if (mob.getTarget() != null) {
+      mob.setTarget(null);
     }
+    pathRequests.moveTo(mob, waypoint, 1.0);
+    return true;
   }
 
   private boolean hasValidTarget(LivingEntity mob) {
@@ -139,57 +444,39 @@ public class MobAI implements Listener {
     }
 
     return (
-      mob.getLocation().distance(target.getLocation()) <= maxTargetDistance
+      target.getWorld().equals(mob.getWorld()) &&
+      mob.getLocation().distanceSquared(target.getLocation()) <= maxTargetDistance * maxTargetDistance
     );
   }
 
   private LivingEntity findBestTarget(LivingEntity mob) {
-    Location mobLoc = mob.getLocation();
-    LivingEntity bestTarget = null;
-    double bestScore = -1;
-
-    // Consider players
-    for (Player player : Bukkit.getOnlinePlayers()) {
-      if (!player.isValid() || player.isDead()) {
-        continue;
-      }
-
-      if (player != null) {
-        Location playerLocation = player.getLocation();
-        if (playerLocation != null) {
-          double distance = mobLoc.distance(playerLocation);
-          if (distance > maxTargetDistance) {
-            continue;
-          }
-
-          double score = playerTargetWeight * (1.0 - (distance / maxTargetDistance));
-          if (score > bestScore) {
-            bestScore = score;
-            bestTarget = player;
-          }
-        }
-      }
-    }
-
-    // Consider villagers
-    for (Villager villager : villageManager.getRegisteredVillagers()) {
-        Location villagerLocation = villager.getLocation();
-        double distance = mobLoc.distance(villagerLocation);
-        if (distance > maxTargetDistance) {
-            continue;
-        }
+    return targetGrid.findBest(
+      mob.getLocation(),
+      maxTargetDistance,
+      playerTargetWeight,
+      villagerTargetWeight
+    );
+  }
 
-        double score = villagerTargetWeight * (1.0 - (distance / maxTargetDistance));
-        if (score > bestScore) {
-            bestScore = score;
-            bestTarget = villager;
-        }
+  /**
+   * Checks whether a skeleton's target is inside its optimal range (10-15 blocks).
+   */
+  boolean isTargetTooClose(Skeleton skeleton) {
+    LivingEntity target = skeleton.getTarget();
+    if (target == null || target.getWorld() != skeleton.getWorld()) {
+      return false;
     }
+    return skeleton.getLocation().distanceSquared(target.getLocation()) < 10 * 10;
+  }
 
-    return bestTarget;
+  /**
+   * Checks whether a mob is still on the last path Bastion ordered for it.
+   */
+  boolean isFollowingOwnPath(Mob mob) {
+    return pathRequests.isFollowing(mob);
   }
 
-  private void handleRangedMobBehavior(Skeleton skeleton) {
+  void retreatFromTarget(Skeleton skeleton) {
     LivingEntity target = skeleton.getTarget();
     if (target == null) {
       return;
@@ -197,111 +484,111 @@ public class MobAI implements Listener {
 
     Location mobLoc = skeleton.getLocation();
     Location targetLoc = target.getLocation();
-    double distance = mobLoc.distance(targetLoc);
-
-    // Try to maintain optimal range (10-15 blocks)
-    if (distance < 10) {
-      // Move away from target
-      Vector direction = mobLoc
-        .toVector()
-        .subtract(targetLoc.toVector())
-        .normalize();
-      Location retreatLoc = mobLoc.add(direction.multiply(5));
-      skeleton.getPathfinder().moveTo(retreatLoc, 1.2);
-    }
-  }
 
-  @EventHandler
-  public void onEntityTarget(EntityTargetEvent event) {
-    if (
-      gameStateManager.getCurrentState() != GameStateManager.GameState.ACTIVE || !(event.getEntity() instanceof Monster)
-    ) {
-      return;
-    }
+    // Move away from target
+    Vector direction = mobLoc
+      .toVector()
+      .subtract(targetLoc.toVector())
+      .normalize();
+    Location retreatLoc = mobLoc.clone().add(direction.multiply(5));
+    pathRequests.moveTo(skeleton, retreatLoc, 1.2);
+  }
 
-    if (!(event.getEntity() instanceof org.bukkit.entity.Creeper)) {
+  /**
+   * Points a wave creeper's new target at a nearby player or villager, even one
+   * behind solid blocks. Dispatched by the arena event router.
+   */
+  public void handleCreeperTarget(EntityTargetEvent event, Creeper creeper) {
+    if (gameStateManager.getCurrentState() != GameStateManager.GameState.ACTIVE || creeper.getWorld() != arenaWorld) {
       return;
     }
 
-    org.bukkit.entity.Creeper creeper = (org.bukkit.entity.Creeper) event.getEntity();
-    Location creeperLocation = creeper.getLocation();
-    World world = creeperLocation.getWorld();
-
     // Find nearby players and villagers within the creeper vision radius
-    world.getNearbyEntities(creeperLocation, creeperVisionRadius, creeperVisionRadius, creeperVisionRadius)
-        .stream()
-        .filter(entity -> entity instanceof Player || entity instanceof Villager)
-        .findFirst()
-        .ifPresent(target -> {
-            event.setTarget((LivingEntity) target);
-            plugin.getLogger().info(String.format("Creeper targeting entity through solid blocks: %s", target));
-        });
+    Location location = creeper.getLocation();
+    LivingEntity target = targetGrid.findFirst(
+      location,
+      creeperVisionRadius + gridQuerySlack,
+      candidate -> candidate.isValid() && !candidate.isDead() && isWithin(candidate, location, creeperVisionRadius)
+    );
+    if (target != null) {
+      event.setTarget(target);
+      plugin.getBastionLog().debug(BastionLog.Category.AI, "Creeper targeting entity through solid blocks: %s", target);
+    }
   }
 
-  private void scanForTargets() {
-    for (World world : Bukkit.getWorlds()) {
-      for (LivingEntity entity : world.getLivingEntities()) {
-        if (!(entity instanceof Creeper creeper)) continue;
-
-        // Skip creepers that already have a valid target
-        if (creeper.getTarget() != null && creeper.getTarget().isValid() && !creeper.getTarget().isDead()) continue;
+  /**
+   * Retargets a creeper without a valid target onto a nearby hidden player or villager.
+   * Line of sight comes from the line-of-sight service's cache where it can, and is
+   * otherwise raycast off the arena thread, so the target is set a few ticks later.
+   * @return True if the creeper was scanned
+   */
+  private boolean scanForTargets(Creeper creeper) {
+    // Skip creepers that already have a valid target
+    if (hasLivingTarget(creeper)) return false;
+
+    findHiddenEntityNearby(creeper).thenAccept(hiddenEntity -> {
+      // The scan finishes ticks later, the creeper may have found a target meanwhile
+      if (
+        hiddenEntity == null ||
+        !creeper.isValid() ||
+        !hiddenEntity.isValid() ||
+        hasLivingTarget(creeper) ||
+        gameStateManager.getCurrentState() != GameStateManager.GameState.ACTIVE
+      ) {
+        return;
+      }
 
-        LivingEntity hiddenEntity = findHiddenEntityNearby(creeper);
-        if (hiddenEntity != null) {
-          EntityTargetLivingEntityEvent event = new EntityTargetLivingEntityEvent(
-            creeper,
-            hiddenEntity,
-            EntityTargetEvent.TargetReason.CUSTOM
-          );
+      EntityTargetLivingEntityEvent event = new EntityTargetLivingEntityEvent(
+        creeper,
+        hiddenEntity,
+        EntityTargetEvent.TargetReason.CUSTOM
+      );
 
-          Bukkit.getPluginManager().callEvent(event);
+      Bukkit.getPluginManager().callEvent(event);
 
-          if (!event.isCancelled()) {
-            creeper.setTarget(event.getTarget());
-            //logToChat("Creeper set target to hidden entity: " + event.getTarget().getName());
-          }
-        }
+      if (!event.isCancelled()) {
+        creeper.setTarget(event.getTarget());
+        //logToChat("Creeper set target to hidden entity: " + event.getTarget().getName());
       }
-    }
+    });
+    return true;
   }
 
-  private LivingEntity findHiddenEntityNearby(Creeper creeper) {
-    Location creepLoc = creeper.getLocation();
-    double radiusSquared = creeperVisionRadius * creeperVisionRadius;
-
-    for (Player player : creepLoc.getWorld().getPlayers()) {
-      if (!player.isValid() || player.isDead()) continue;
-      if (player.getGameMode() != GameMode.SURVIVAL) continue;
-      if (creepLoc.distanceSquared(player.getLocation()) > radiusSquared) continue;
+  private boolean hasLivingTarget(Creeper creeper) {
+    LivingEntity target = creeper.getTarget();
+    return target != null && target.isValid() && !target.isDead();
+  }
 
-      // Only target if player is hidden
-      if (!creeper.hasLineOfSight(player)) {
-        return player;
-      }
+  /**
+   * Finds a survival player or villager near the creeper that it cannot see.
+   * Only the arena's target grid is searched, so the cost depends on the targets
+   * near the creeper rather than on the entities in the world.
+   */
+  private CompletableFuture<LivingEntity> findHiddenEntityNearby(Creeper creeper) {
+    if (creeper.getWorld() != arenaWorld) {
+      return CompletableFuture.completedFuture(null);
     }
 
-    for (LivingEntity entity : creepLoc.getWorld().getLivingEntities()) {
-      if (!(entity instanceof Villager villager)) continue;
-      if (!villager.isValid() || villager.isDead()) continue;
-      if (creepLoc.distanceSquared(villager.getLocation()) > radiusSquared) continue;
-
-      // Only target if villager is hidden
-      if (!creeper.hasLineOfSight(villager)) {
-        return villager;
-      }
+    Location location = creeper.getLocation();
+    List<LivingEntity> candidates = new ArrayList<>();
+    targetGrid.collectWithin(location, creeperVisionRadius + gridQuerySlack, candidate -> {
+      if (!candidate.isValid() || candidate.isDead() || !isWithin(candidate, location, creeperVisionRadius)) return false;
+      return !(candidate instanceof Player player) || player.getGameMode() == GameMode.SURVIVAL;
+    }, candidates);
+    if (candidates.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
     }
 
-    return null;
+    // Only target if the entity is hidden
+    return lineOfSight.findFirstHidden(creeper, candidates);
   }
 
-  @EventHandler
-  public void onTarget(EntityTargetLivingEntityEvent event) {
-    if (!(event.getEntity() instanceof Creeper creeper)) return;
-    if (!(event.getTarget() instanceof LivingEntity target)) return;
-
-    if (!creeper.hasLineOfSight(target)) {
-      event.setTarget(target); // override targeting
-    }
+  /**
+   * Checks a grid candidate's live position, which the grid may not have caught up with.
+   */
+  private static boolean isWithin(LivingEntity candidate, Location location, double radius) {
+    Location current = candidate.getLocation();
+    return current.getWorld() == location.getWorld() && current.distanceSquared(location) <= radius * radius;
   }
 
   private boolean isHostileMob(Entity entity) {
@@ -0,0 +1,141 @@
+package city.emerald.bastion.wave;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.bukkit.Material;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Skeleton;
+import org.bukkit.entity.Zombie;
+import org.bukkit.inventory.EntityEquipment;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Pre-computed spawn templates for normal, elite and boss wave mobs.
+ * Each template is passed to {@code World.spawn} as the pre-spawn configurator, so
+ * names, equipment and health are set before the mob enters the world and no
+ * follow-up metadata updates are sent.
+ */
+final class MobArchetypes {
+
+  enum Rank {
+    NORMAL,
+    ELITE,
+    BOSS,
+  }
+
+  // Shared prototype, equipment setters copy the stack so it is never mutated
+  private final ItemStack daylightHelmet;
+  private final Map<EntityType, Archetype> eliteArchetypes;
+  private final Map<EntityType, Archetype> bossArchetypes;
+  private final Map<EntityType, Archetype> normalArchetypes;
+  private int normalArchetypeWave;
+
+  MobArchetypes() {
+    this.daylightHelmet = new ItemStack(Material.LEATHER_HELMET);
+    this.eliteArchetypes = new EnumMap<>(EntityType.class);
+    this.bossArchetypes = new EnumMap<>(EntityType.class);
+    this.normalArchetypes = new EnumMap<>(EntityType.class);
+    this.normalArchetypeWave = -1;
+  }
+
+  /**
+   * Gets the spawn template for a mob.
+   * @param type The mob type
+   * @param waveNumber The wave number, shown in the name of normal mobs
+   * @param rank The mob rank
+   * @return The template, or null if the type is not a living entity
+   */
+  Archetype get(EntityType type, int waveNumber, Rank rank) {
+    switch (rank) {
+      case BOSS:
+        return bossArchetypes.computeIfAbsent(type, t -> create(t, "§4[BOSS]", 2.0));
+      case ELITE:
+        return eliteArchetypes.computeIfAbsent(type, t -> create(t, "§5[ELITE]", 1.5));
+      default:
+        // Normal names carry the wave number, so they are rebuilt once per wave
+        if (waveNumber != normalArchetypeWave) {
+          normalArchetypes.clear();
+          normalArchetypeWave = waveNumber;
+        }
+        String prefix = "§c[Wave " + waveNumber + "]";
+        return normalArchetypes.computeIfAbsent(type, t -> create(t, prefix, 1.0));
+    }
+  }
+
+  private Archetype create(EntityType type, String prefix, double healthMultiplier) {
+    Class<?> entityClass = type.getEntityClass();
+    if (entityClass == null || !LivingEntity.class.isAssignableFrom(entityClass)) {
+      return null;
+    }
+
+    // Equip mobs that burn in daylight with a helmet
+    boolean wearsHelmet =
+      Zombie.class.isAssignableFrom(entityClass) || Skeleton.class.isAssignableFrom(entityClass);
+
+    return new Archetype(
+      entityClass.asSubclass(LivingEntity.class),
+      prefix + " " + formatMobName(type.name()),
+      healthMultiplier,
+      wearsHelmet ? daylightHelmet : null
+    );
+  }
+
+  private static String formatMobName(String name) {
+    return name.substring(0, 1).toUpperCase() + name.substring(1).toLowerCase();
+  }
+
+  /**
+   * A single mob template, applied to the entity before it is added to the world.
+   */
+  static final class Archetype implements Consumer<LivingEntity> {
+
+    private final Class<? extends LivingEntity> entityClass;
+    private final String customName;
+    private final double healthMultiplier;
+    private final ItemStack helmet;
+
+    private Archetype(
+      Class<? extends LivingEntity> entityClass,
+      String customName,
+      double healthMultiplier,
+      ItemStack helmet
+    ) {
+      this.entityClass = entityClass;
+      this.customName = customName;
+      this.healthMultiplier = healthMultiplier;
+      this.helmet = helmet;
+    }
+
+    Class<? extends LivingEntity> getEntityClass() {
+      return entityClass;
+    }
+
+    @Override
+    public void accept(LivingEntity mob) {
+      mob.setCustomName(customName);
+      mob.setCustomNameVisible(true);
+
+      if (helmet != null) {
+        EntityEquipment equipment = mob.getEquipment();
+        if (equipment != null) {
+          equipment.setHelmet(helmet);
+          equipment.setHelmetDropChance(0.0f); // Prevent helmet drop
+        }
+      }
+
+      if (healthMultiplier != 1.0) {
+        AttributeInstance maxHealth = mob.getAttribute(Attribute.GENERIC_MAX_HEALTH);
+        if (maxHealth != null) {
+          double health = maxHealth.getBaseValue() * healthMultiplier;
+          maxHealth.setBaseValue(health);
+          mob.setHealth(health);
+        }
+      }
+    }
+  }
+}
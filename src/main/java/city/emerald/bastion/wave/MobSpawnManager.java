@@ -1,77 +1,144 @@
 package city.emerald.bastion.wave;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
-import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
 import org.bukkit.World;
-import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Item;
 import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Mob;
 import org.bukkit.entity.Player;
+import org.bukkit.entity.Projectile;
 import org.bukkit.entity.Villager;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.entity.ItemSpawnEvent;
+import org.bukkit.event.entity.ProjectileLaunchEvent;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataType;
 
 import city.emerald.bastion.BarrierManager;
 import city.emerald.bastion.Bastion;
+import city.emerald.bastion.BastionConfig;
+import city.emerald.bastion.BastionLog;
+import city.emerald.bastion.BastionTicker;
 import city.emerald.bastion.VillageManager;
 import city.emerald.bastion.economy.LootManager;
 
 public class MobSpawnManager implements Listener {
 
   private final Bastion plugin;
+  private final BastionTicker ticker;
   private WaveManager waveManager;
+  private MobAI mobAI;
   private final VillageManager villageManager;
   private final BarrierManager barrierManager;
   private final LootManager lootManager;
   private final Random random;
-  private BukkitTask spawnTask;
-  private Map<LivingEntity, Long> spawnTimes;
+  private final WaveMobRegistry mobRegistry;
   private int currentMobCount;
-  private Location previousSpawnLocation = null;
+  private DifficultyTable difficultyTable;
+  private final MobArchetypes archetypes;
+
+  // Projectiles fired by wave mobs, removed together with the mobs at wave end
+  private final Set<Projectile> waveProjectiles;
+  // Items dropped by wave mobs, removed when the next wave begins or the game stops
+  private final Set<Item> waveDrops;
+  // Marks the drops of this arena's wave mobs until they spawn as items; the value
+  // tells this arena's drops apart from another arena's
+  private final NamespacedKey dropKey;
+  private final String dropToken;
+  // Entities waiting to be removed by the time-sliced cleanup task
+  private final Deque<Entity> pendingRemovals;
+  private boolean cleanupQueued;
+
+  // Wave being pre-staged during the preparation countdown, and its dormant mobs
+  private SpawnRun stagedRun;
+  private final List<LivingEntity> dormantMobs;
+  private BastionTicker.Task prestageTask;
+
+  private static final int PROJECTILE_PRUNE_THRESHOLD = 256;
+  private static final int DROP_PRUNE_THRESHOLD = 256;
+
+  private static final Consumer<LivingEntity> UNCOLLIDABLE = mob -> mob.setCollidable(false);
+
+  // Applied after the archetype to keep pre-staged mobs inert and hidden until activation
+  private static final Consumer<LivingEntity> DORMANT = mob -> {
+    mob.setAI(false);
+    mob.setInvisible(true);
+    mob.setInvulnerable(true);
+    mob.setSilent(true);
+    mob.setCollidable(false);
+    mob.setCustomNameVisible(false);
+  };
 
   public MobSpawnManager(
     Bastion plugin,
+    BastionTicker ticker,
     VillageManager villageManager,
     BarrierManager barrierManager,
     LootManager lootManager
   ) {
     this.plugin = plugin;
+    this.ticker = ticker;
     this.villageManager = villageManager;
     this.barrierManager = barrierManager;
     this.lootManager = lootManager;
     this.random = new Random();
-    this.spawnTimes = new HashMap<>();
+    this.mobRegistry = new WaveMobRegistry();
     this.currentMobCount = 0;
+    this.waveProjectiles = new HashSet<>();
+    this.waveDrops = new HashSet<>();
+    this.dropKey = new NamespacedKey(plugin, "wave_drop");
+    this.dropToken = UUID.randomUUID().toString();
+    this.pendingRemovals = new ArrayDeque<>();
+    this.archetypes = new MobArchetypes();
+    this.dormantMobs = new ArrayList<>();
+    reloadDifficultyTable();
   }
 
   public void setWaveManager(WaveManager waveManager) {
     this.waveManager = waveManager;
   }
 
+  public void setMobAI(MobAI mobAI) {
+    this.mobAI = mobAI;
+  }
+
+  /**
+   * Gets the registry of active wave mobs, shared with the AI loops.
+   */
+  public WaveMobRegistry getMobRegistry() {
+    return mobRegistry;
+  }
+
   public void stopSpawning() {
-    if (spawnTask != null) {
-      spawnTask.cancel();
-      spawnTask = null;
-    }
+    cancelPrestageTask();
+    stagedRun = null;
 
-    // Clean up existing mobs
-    for (LivingEntity mob : spawnTimes.keySet()) {
-      mob.remove();
-    }
-    spawnTimes.clear();
-    currentMobCount = 0;
+    // Clean up existing mobs and their drops over the next few ticks
+    queueTrackedForRemoval();
+    queueDropsForRemoval();
+    startCleanupTask();
   }
 
   /**
@@ -83,17 +150,21 @@ public class MobSpawnManager implements Listener {
   }
 
   /**
-   * Gets an immediate count of living (valid) mobs by checking all tracked mobs right now.
-   * Use this when you need the most current count without waiting for the timer update.
-   * @return The number of currently living mobs (calculated immediately)
+   * Gets the number of living wave mobs. The registry drops mobs on their death or
+   * removal event, so its size is the alive count.
+   * @return The number of currently living mobs
    */
   public int getImmediateLivingMobCount() {
-    return (int) spawnTimes.keySet().stream()
-      .filter(LivingEntity::isValid)
-      .count();
+    return mobRegistry.size();
   }
 
-  private Location findSafeSpawnLocation() {
+  /**
+   * Searches random spots around the village for a valid spawn location that stays
+   * within the dispersion caps. Used once a wave plan's columns are used up.
+   * @param dispersion The placements made so far this wave
+   * @return A spawn location, or null if none was found
+   */
+  private Location findSafeSpawnLocation(SpawnDispersion dispersion) {
     Optional<Location> centerOpt = villageManager.getVillageCenter();
     if (!centerOpt.isPresent()) {
       return null;
@@ -112,6 +183,9 @@ public class MobSpawnManager implements Listener {
       // Calculate position
       double x = center.getX() + (distance * Math.cos(angle));
       double z = center.getZ() + (distance * Math.sin(angle));
+      if (!dispersion.canPlace(x, z)) {
+        continue;
+      }
 
       Location spawnLoc = new Location(world, x, 0, z);
       int y = 1 + world.getHighestBlockYAt(spawnLoc);
@@ -126,22 +200,6 @@ public class MobSpawnManager implements Listener {
     return null;
   }
 
-  private Location findSpawnLocationWithRetry() {
-    for (int retry = 0; retry < 50; retry++) {
-      Location loc = findSafeSpawnLocation();
-      if (loc != null) {
-        previousSpawnLocation = loc.clone();
-        return loc;
-      }
-      
-      if (previousSpawnLocation != null) {
-        return previousSpawnLocation.clone();
-      }
-    }
-    
-    return null;
-  }
-
   private boolean isValidSpawnLocation(Location loc) {
     if (
       !barrierManager.isInBarrier(loc, villageManager.getVillageCenter().get())
@@ -169,235 +227,530 @@ public class MobSpawnManager implements Listener {
     return true;
   }
 
-  private void applyMobAttributes(LivingEntity mob) {
-    // All stat scaling removed - mobs keep their base attributes
-    // This method kept as stub for future use (equipment, effects, etc.)
+  /**
+   * Plans a wave on the calling thread.
+   * @param waveNumber The wave number
+   * @param mobCount The number of mobs to spawn
+   * @return The wave plan, or null if no village is selected
+   */
+  public WavePlan planWave(int waveNumber, int mobCount) {
+    Optional<Location> centerOpt = villageManager.getVillageCenter();
+    if (!centerOpt.isPresent()) {
+      return null;
+    }
+
+    Location center = centerOpt.get();
+    WavePlan plan = WavePlanner.plan(
+      difficultyTable,
+      waveNumber,
+      mobCount,
+      center.getX(),
+      center.getZ(),
+      barrierManager.getBarrierRadius(),
+      readDispersionSettings(),
+      random
+    );
+    logPlan(plan);
+    return plan;
+  }
+
+  /**
+   * Plans a wave on an async worker. Inputs are captured on the calling (main) thread.
+   * @param waveNumber The wave number
+   * @param mobCount The number of mobs to spawn
+   * @return A future completed with the plan, or with null if no village is selected
+   */
+  public CompletableFuture<WavePlan> planWaveAsync(int waveNumber, int mobCount) {
+    Optional<Location> centerOpt = villageManager.getVillageCenter();
+    if (!centerOpt.isPresent()) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    DifficultyTable table = difficultyTable;
+    double centerX = centerOpt.get().getX();
+    double centerZ = centerOpt.get().getZ();
+    double barrierRadius = barrierManager.getBarrierRadius();
+    SpawnDispersion.Settings dispersionSettings = readDispersionSettings();
+
+    return CompletableFuture.supplyAsync(
+      () -> {
+        WavePlan plan = WavePlanner.plan(
+          table,
+          waveNumber,
+          mobCount,
+          centerX,
+          centerZ,
+          barrierRadius,
+          dispersionSettings,
+          ThreadLocalRandom.current()
+        );
+        logPlan(plan);
+        return plan;
+      },
+      task -> Bukkit.getAsyncScheduler().runNow(plugin, scheduled -> task.run())
+    );
   }
 
-  private String formatMobName(String name) {
-    return name.substring(0, 1).toUpperCase() + name.substring(1).toLowerCase();
+  private void logPlan(WavePlan plan) {
+    plugin.getBastionLog().debug(
+      BastionLog.Category.COMPOSITION,
+      "Planned wave %d: %d mobs, average difficulty %.2f, boss wave: %b",
+      plan.getWaveNumber(),
+      plan.getMobCount(),
+      plan.getAverageDifficulty(),
+      plan.isBossWave()
+    );
   }
 
   /**
-   * Calculate probability of selecting a mob with given difficulty
-   * @param targetDifficulty The desired difficulty level
-   * @param candidateDifficulty The difficulty of the candidate mob
-   * @return Probability [0.0, 1.0] of selecting this mob
+   * Generates and spawns all mobs for a given wave at once.
+   * @param waveNumber The current wave number.
+   * @param mobCount The total number of mobs to spawn for the wave.
    */
-  private double calculateSelectionProbability(double targetDifficulty, double candidateDifficulty) {
-    double distance = Math.abs(candidateDifficulty - targetDifficulty);
-    return Math.exp(-distance * 2.0);
+  public void spawnWave(int waveNumber, int mobCount) {
+    WavePlan plan = planWave(waveNumber, mobCount);
+    if (plan != null) {
+      spawnWave(plan);
+    }
   }
 
   /**
-   * Generate initial mob distribution using probabilistic sampling
-   * @param targetDifficulty The desired average difficulty
-   * @param mobCount Number of mobs to generate
-   * @param availableMobTypes List of available mob types
-   * @param mobDifficultyMap Difficulty values for each mob type
-   * @return Initial mob list
+   * Spawns all mobs of a pre-computed wave plan. If the same plan was pre-staged
+   * during the preparation countdown, the dormant mobs are activated and only the
+   * mobs that were not staged yet are spawned.
+   * @param plan The wave plan to spawn
    */
-  private List<EntityType> generateInitialDistribution(
-      double targetDifficulty,
-      int mobCount,
-      List<EntityType> availableMobTypes,
-      Map<EntityType, Double> mobDifficultyMap
-  ) {
-    List<EntityType> initialMobs = new ArrayList<>();
-    
-    plugin.getLogger().info("DEBUG: availableMobTypes size = " + availableMobTypes.size());
+  public void spawnWave(WavePlan plan) {
+    SpawnRun run;
+    if (stagedRun != null && stagedRun.plan == plan) {
+      cancelPrestageTask();
+      run = stagedRun;
+      stagedRun = null;
+      activateDormantMobs(run);
+    } else {
+      discardStagedWave();
+      run = newSpawnRun(plan);
+    }
+
+    // Players had the whole completion delay to collect the last wave's drops
+    queueDropsForRemoval();
+    startCleanupTask();
+
+    spawnBatch(run, Integer.MAX_VALUE, false);
     
-    while (initialMobs.size() < mobCount) {
-      // Pick random mob
-      EntityType candidateMob = availableMobTypes.get(random.nextInt(availableMobTypes.size()));
-      
-      // Calculate acceptance probability based on difficulty
-      double mobDifficulty = mobDifficultyMap.getOrDefault(candidateMob, 1.0);
-      double acceptanceProbability = calculateSelectionProbability(targetDifficulty, mobDifficulty);
-      
-      // Accept if random number is less than or equal to probability
-      if (random.nextDouble() <= acceptanceProbability) {
-        initialMobs.add(candidateMob);
+    // Update WaveManager with actual spawned count
+    waveManager.adjustRemainingMobs(run.summary.getSpawned());
+    plugin.getBastionLog().info(run.summary);
+  }
+
+  /**
+   * Spawns the upcoming wave gradually during the preparation countdown. Mobs are
+   * placed dormant (no AI, invisible, invulnerable, silent) and activated in a single
+   * pass by {@link #spawnWave(WavePlan)} when the wave begins.
+   * @param planFuture The plan being computed for the upcoming wave
+   * @param ticksUntilStart Ticks until the wave begins; staging is spread over them
+   */
+  public void prestageWave(CompletableFuture<WavePlan> planFuture, long ticksUntilStart) {
+    discardStagedWave();
+    int minSpawnsPerTick = plugin.getSettings().prestageSpawnsPerTick;
+
+    long[] ticksLeft = { ticksUntilStart };
+
+    prestageTask = ticker.runTimer(BastionTicker.Phase.SPAWN, 1L, 1L, () -> {
+      ticksLeft[0]--;
+      if (!planFuture.isDone()) {
+        return;
+      }
+
+      WavePlan plan = planFuture.isCompletedExceptionally() ? null : planFuture.getNow(null);
+      if (plan == null || ticksLeft[0] <= 0) {
+        // Whatever is not staged yet is spawned normally when the wave begins
+        cancelPrestageTask();
+        return;
       }
+
+      if (stagedRun == null) {
+        stagedRun = newSpawnRun(plan);
+      }
+
+      // Spread the remaining mobs evenly over the rest of the countdown
+      int remaining = plan.getMobCount() - stagedRun.nextMob;
+      int spawnsThisTick = (int) Math.max(minSpawnsPerTick, (remaining + ticksLeft[0] - 1) / ticksLeft[0]);
+      spawnBatch(stagedRun, spawnsThisTick, true);
+
+      if (stagedRun.isComplete()) {
+        cancelPrestageTask();
+      }
+    });
+  }
+
+  private void cancelPrestageTask() {
+    if (prestageTask != null) {
+      prestageTask.cancel();
+      prestageTask = null;
     }
-    
-    return initialMobs;
   }
 
   /**
-   * Generates and spawns all mobs for a given wave at once.
-   * @param waveNumber The current wave number.
-   * @param mobCount The total number of mobs to spawn for the wave.
+   * Drops a staged wave that will not be used and removes its dormant mobs.
    */
-  public void spawnWave(int waveNumber, int mobCount) {
-    List<EntityType> mobList = generateMobListForWave(waveNumber, mobCount);
-    int actualSpawned = 0;
+  private void discardStagedWave() {
+    cancelPrestageTask();
+    stagedRun = null;
+    if (!dormantMobs.isEmpty()) {
+      pendingRemovals.addAll(dormantMobs);
+      dormantMobs.clear();
+      startCleanupTask();
+    }
+  }
 
-    for (EntityType mobType : mobList) {
-      Location spawnLoc = findSpawnLocationWithRetry();
-      if (spawnLoc == null) {
-        plugin.getLogger().warning("Could not find a safe spawn location for wave " + waveNumber);
+  /**
+   * Wakes all pre-staged mobs and starts tracking them as wave mobs.
+   */
+  private void activateDormantMobs(SpawnRun run) {
+    BastionConfig settings = plugin.getSettings();
+    boolean disableCrowdCollisions = settings.disableCollisionsInCrowds;
+    int crowdThreshold = settings.crowdThreshold;
+    for (LivingEntity mob : dormantMobs) {
+      if (!mob.isValid()) {
         continue;
       }
+      mob.setAI(true);
+      mob.setInvisible(false);
+      mob.setInvulnerable(false);
+      mob.setSilent(false);
+      Location location = mob.getLocation();
+      mob.setCollidable(
+        !disableCrowdCollisions ||
+        run.dispersion.countInChunk(location.getX(), location.getZ()) < crowdThreshold
+      );
+      mob.setCustomNameVisible(true);
 
-      LivingEntity mob = (LivingEntity) spawnLoc.getWorld().spawnEntity(spawnLoc, mobType);
+      mobRegistry.add(mob);
+      currentMobCount++;
+    }
+    dormantMobs.clear();
+  }
 
-      // Log spawn location for debugging
-      plugin.getLogger().info(String.format("Spawned %s at coordinates: X=%.2f, Y=%.2f, Z=%.2f", 
-          mobType.name(), spawnLoc.getX(), spawnLoc.getY(), spawnLoc.getZ()));
-
-      // Equip mobs to prevent them from burning in daylight
-      if (mob instanceof org.bukkit.entity.Zombie || mob instanceof org.bukkit.entity.Skeleton) {
-          if (mob.getEquipment() != null) {
-              mob.getEquipment().setHelmet(new ItemStack(Material.LEATHER_HELMET));
-              mob.getEquipment().setHelmetDropChance(0.0f); // Prevent helmet drop
-          }
+  /**
+   * Spawns up to {@code limit} further mobs of a spawn run.
+   * @param run The spawn run to advance
+   * @param limit Maximum number of mobs to attempt
+   * @param dormant Whether to spawn the mobs dormant for pre-staging
+   */
+  private void spawnBatch(SpawnRun run, int limit, boolean dormant) {
+    WavePlan plan = run.plan;
+    int waveNumber = plan.getWaveNumber();
+    BastionConfig settings = plugin.getSettings();
+    boolean disableCrowdCollisions = settings.disableCollisionsInCrowds;
+    int crowdThreshold = settings.crowdThreshold;
+    BastionLog log = plugin.getBastionLog();
+    boolean logSpawns = log.isEnabled(BastionLog.Category.SPAWN);
+
+    for (int attempts = 0; attempts < limit && !run.isComplete(); attempts++) {
+      int i = run.nextMob++;
+      EntityType mobType = plan.getMobType(i);
+
+      // Use the planned columns first, falling back to a live search once they run out
+      Location spawnLoc = null;
+      while (spawnLoc == null && run.nextSpawnPoint < plan.getSpawnPointCount()) {
+        spawnLoc = resolvePlannedSpawnLocation(run, run.nextSpawnPoint++);
+      }
+      if (spawnLoc == null) {
+        spawnLoc = findSafeSpawnLocation(run.dispersion);
+      }
+      if (spawnLoc == null) {
+        // Keep the planned wave size: loosen the spread caps before giving up a mob
+        while (spawnLoc == null && run.dispersion.relax()) {
+          spawnLoc = findSafeSpawnLocation(run.dispersion);
+        }
+        if (spawnLoc == null && run.lastSpawnLocation != null) {
+          // Every spot is too close to players; share the last mob's spot as before
+          spawnLoc = run.lastSpawnLocation.clone();
+        }
+        if (spawnLoc == null) {
+          run.summary.recordFailedPlacement();
+          continue;
+        }
+        run.summary.recordRelaxedPlacement();
+      }
+      run.lastSpawnLocation = spawnLoc;
+
+      // Elite and boss rolls were made while planning
+      MobArchetypes.Rank rank = plan.isBossWave()
+        ? MobArchetypes.Rank.BOSS
+        : (plan.isElite(i) ? MobArchetypes.Rank.ELITE : MobArchetypes.Rank.NORMAL);
+      MobArchetypes.Archetype archetype = archetypes.get(mobType, waveNumber, rank);
+      if (archetype == null) {
+        log.warning("Cannot spawn non-living mob type " + mobType + " for wave " + waveNumber);
+        continue;
       }
 
-      // Apply wave-based attributes
-      applyMobAttributes(mob);
+      // Mobs placed into an already crowded chunk skip entity collisions
+      int chunkCount = run.dispersion.place(spawnLoc.getX(), spawnLoc.getZ());
+      Consumer<LivingEntity> configurator = archetype;
+      if (disableCrowdCollisions && chunkCount >= crowdThreshold) {
+        configurator = configurator.andThen(UNCOLLIDABLE);
+      }
+      if (dormant) {
+        configurator = configurator.andThen(DORMANT);
+      }
 
-      // Determine if mob is elite or boss
-      boolean isElite = waveNumber >= 5 && random.nextDouble() < 0.2;
-      boolean isBoss = waveNumber % 10 == 0;
+      // Name, equipment and health are applied before the mob is added to the world
+      LivingEntity mob = spawnLoc.getWorld().spawn(spawnLoc, archetype.getEntityClass(), configurator);
 
-      // Set custom name to indicate wave number and type
-      String prefix = isBoss
-        ? "§4[BOSS]"
-        : (isElite ? "§5[ELITE]" : "§c[Wave " + waveNumber + "]");
-      mob.setCustomName(prefix + " " + formatMobName(mob.getType().name()));
-      mob.setCustomNameVisible(true);
+      if (mobAI != null && mob instanceof Mob goalMob) {
+        mobAI.attachGoals(goalMob);
+      }
 
-      // Apply health modifications for elite and boss mobs
-      if (isBoss) {
-        // Double health for boss mobs
-        double baseHealth = mob.getMaxHealth();
-        mob.setMaxHealth(baseHealth * 2.0);
-        mob.setHealth(baseHealth * 2.0);
-      } else if (isElite) {
-        // 50% more health for elite mobs
-        double baseHealth = mob.getMaxHealth();
-        mob.setMaxHealth(baseHealth * 1.5);
-        mob.setHealth(baseHealth * 1.5);
+      // Log spawn location for debugging
+      if (logSpawns) {
+        log.debug(BastionLog.Category.SPAWN, "Spawned %s at coordinates: X=%.2f, Y=%.2f, Z=%.2f",
+          mobType.name(), spawnLoc.getX(), spawnLoc.getY(), spawnLoc.getZ());
       }
 
-      // Track spawn time
-      spawnTimes.put(mob, System.currentTimeMillis());
-      currentMobCount++;
-      actualSpawned++;
+      if (dormant) {
+        dormantMobs.add(mob);
+      } else {
+        // Track spawn time
+        mobRegistry.add(mob);
+        currentMobCount++;
+      }
+      run.summary.recordSpawn(mobType, rank);
     }
-    
-    // Update WaveManager with actual spawned count
-    waveManager.adjustRemainingMobs(actualSpawned);
-    plugin.getLogger().info("Spawned " + actualSpawned + " of " + mobCount + " requested mobs for wave " + waveNumber);
   }
 
   /**
-   * Generates a list of mobs for a wave based on a target difficulty score.
-   * @param waveNumber The current wave number.
-   * @param mobCount The total number of mobs in the wave.
-   * @return A list of EntityTypes to be spawned.
+   * Resolves the height of a planned spawn column and validates it against the
+   * dispersion caps and the current player and villager positions.
+   * @return The spawn location, or null if the column is not usable right now
    */
-  private List<EntityType> generateMobListForWave(int waveNumber, int mobCount) {
-    ConfigurationSection difficultyConfig = plugin.getConfig().getConfigurationSection("mob_difficulty");
-    if (difficultyConfig == null || difficultyConfig.getKeys(false).isEmpty()) {
-        plugin.getLogger().severe("mob_difficulty section is empty or missing from config.yml!");
-        return Collections.nCopies(mobCount, EntityType.ZOMBIE);
+  private Location resolvePlannedSpawnLocation(SpawnRun run, int index) {
+    Optional<Location> centerOpt = villageManager.getVillageCenter();
+    if (!centerOpt.isPresent()) {
+      return null;
     }
 
-    Map<EntityType, Double> mobDifficultyMap = new HashMap<>();
-    List<EntityType> availableMobTypes = new ArrayList<>();
-    for (String key : difficultyConfig.getKeys(false)) {
-        try {
-            EntityType type = EntityType.valueOf(key.toUpperCase());
-            mobDifficultyMap.put(type, difficultyConfig.getDouble(key));
-            availableMobTypes.add(type);
-        } catch (IllegalArgumentException e) {
-            plugin.getLogger().warning("Invalid mob type in config.yml: " + key);
-        }
+    double x = run.plan.getSpawnX(index);
+    double z = run.plan.getSpawnZ(index);
+    if (!run.dispersion.canPlace(x, z)) {
+      return null;
     }
 
-    double startingDifficulty = plugin.getDoubleSafe("wave.difficulty_scaling.starting_average_difficulty", 1.0);
-    double difficultyIncrease = plugin.getDoubleSafe("wave.difficulty_scaling.average_difficulty_increase_percent", 5.0) / 100.0;
-    int maxFailedSwaps = plugin.getIntSafe("wave.difficulty_scaling.max_failed_swaps", 50);
+    World world = centerOpt.get().getWorld();
+    Location spawnLoc = new Location(world, x, 0, z);
+    spawnLoc.setY(1 + world.getHighestBlockYAt(spawnLoc));
+    return isValidSpawnLocation(spawnLoc) ? spawnLoc : null;
+  }
 
-    double targetAverageDifficulty = startingDifficulty * Math.pow(1 + difficultyIncrease, waveNumber - 1);
+  private SpawnDispersion.Settings readDispersionSettings() {
+    BastionConfig settings = plugin.getSettings();
+    return new SpawnDispersion.Settings(
+      settings.spawnSectors,
+      settings.maxSpawnsPerChunk,
+      settings.maxSpawnsPerSector,
+      settings.spawnSectorSlack
+    );
+  }
 
-    // Generate initial distribution using probabilistic sampling
-    List<EntityType> mobSet = generateInitialDistribution(targetAverageDifficulty, mobCount, availableMobTypes, mobDifficultyMap);
-    
-    // Calculate initial average difficulty
-    double currentAverageDifficulty = mobSet.stream()
-        .mapToDouble(mob -> mobDifficultyMap.getOrDefault(mob, 1.0))
-        .average()
-        .orElse(1.0);
-
-    // Simulated annealing optimization
-    int failedSwaps = 0;
-    double currentDistance = Math.abs(currentAverageDifficulty - targetAverageDifficulty);
-    
-    while (failedSwaps < maxFailedSwaps) {
-        if (availableMobTypes.isEmpty()) break;
-
-        int indexToSwap = random.nextInt(mobSet.size());
-        EntityType candidateType = availableMobTypes.get(random.nextInt(availableMobTypes.size()));
-
-        double difficultyRemoved = mobDifficultyMap.getOrDefault(mobSet.get(indexToSwap), 1.0);
-        double difficultyAdded = mobDifficultyMap.getOrDefault(candidateType, 1.0);
-
-        double newTotalDifficulty = (currentAverageDifficulty * mobCount) - difficultyRemoved + difficultyAdded;
-        double newAverageDifficulty = newTotalDifficulty / mobCount;
-        double newDistance = Math.abs(newAverageDifficulty - targetAverageDifficulty);
-
-        // Accept if new distance is not worse than current distance
-        if (newDistance <= currentDistance) {
-            mobSet.set(indexToSwap, candidateType);
-            currentAverageDifficulty = newAverageDifficulty;
-            currentDistance = newDistance;
-            failedSwaps = 0; // Reset on successful swap
-        } else {
-            failedSwaps++;
-        }
+  /**
+   * Starts a spawn run for a plan, tracking placements around the current village center.
+   */
+  private SpawnRun newSpawnRun(WavePlan plan) {
+    Location center = villageManager.getVillageCenter().orElse(null);
+    double centerX = center != null ? center.getX() : 0.0;
+    double centerZ = center != null ? center.getZ() : 0.0;
+    return new SpawnRun(
+      plan,
+      readDispersionSettings().create(centerX, centerZ, plan.getMobCount())
+    );
+  }
+
+  /**
+   * Recompiles the mob difficulty table from the current config.
+   * Called on construction and whenever the configuration changes.
+   */
+  public void reloadDifficultyTable() {
+    BastionConfig settings = plugin.getSettings();
+    this.difficultyTable = DifficultyTable.compile(
+      plugin.getConfig().getConfigurationSection("mob_difficulty"),
+      settings.startingAverageDifficulty,
+      settings.averageDifficultyIncreasePercent,
+      settings.maxWaves,
+      plugin.getLogger()
+    );
+  }
+
+  /**
+   * Unregisters a wave mob that died. Dispatched by the arena event router on the
+   * arena thread, after the death event itself is over.
+   */
+  public void handleWaveMobDeath(LivingEntity entity) {
+    if (!mobRegistry.remove(entity)) {
+      return;
     }
-    
-    plugin.getLogger().info("Generated mob set for wave " + waveNumber + " with average difficulty: " + currentAverageDifficulty);
-    return mobSet;
+    if (currentMobCount > 0) {
+      currentMobCount--;
+    }
+    notifyIfCleared();
   }
 
-  @EventHandler
-  public void onEntityDeath(EntityDeathEvent event) {
-    // Track mob deaths for cleanup purposes
-    if (event.getEntity() instanceof org.bukkit.entity.Monster) {
-      spawnTimes.remove(event.getEntity());
-      if (currentMobCount > 0) {
-        currentMobCount--;
+  /**
+   * Marks a wave mob's drops, so the items they spawn as are tracked. Called while
+   * the death event fires, on the thread that owns the mob.
+   */
+  public void tagDrops(EntityDeathEvent event) {
+    for (ItemStack drop : event.getDrops()) {
+      if (drop != null && !drop.getType().isAir()) {
+        drop.editMeta(meta -> meta.getPersistentDataContainer().set(dropKey, PersistentDataType.STRING, dropToken));
       }
     }
   }
 
   /**
-   * Instantly cleanup all remaining hostile mobs without drops when wave completion target is reached
+   * Tracks items spawned from this arena's wave mob drops, removing the mark again
+   * so the items stack and trade like any other.
    */
-  public void cleanupRemainingMobs() {
-    plugin.getLogger().info("Instantly cleaning up " + spawnTimes.size() + " remaining mobs");
+  @EventHandler(ignoreCancelled = true)
+  public void onItemSpawn(ItemSpawnEvent event) {
+    Item item = event.getEntity();
+    ItemStack stack = item.getItemStack();
+    if (!stack.hasItemMeta()) {
+      return;
+    }
+    ItemMeta meta = stack.getItemMeta();
+    if (!dropToken.equals(meta.getPersistentDataContainer().get(dropKey, PersistentDataType.STRING))) {
+      return;
+    }
+    meta.getPersistentDataContainer().remove(dropKey);
+    stack.setItemMeta(meta);
+    item.setItemStack(stack);
+
+    ticker.execute(() -> {
+      // Drop items that were picked up or despawned so the set tracks only live ones
+      if (waveDrops.size() >= DROP_PRUNE_THRESHOLD) {
+        waveDrops.removeIf(tracked -> !tracked.isValid());
+      }
+      waveDrops.add(item);
+    });
+  }
 
-    // Remove all tracked hostile mobs instantly without drops
-    for (LivingEntity mob : spawnTimes.keySet()) {
-      if (mob.isValid()) {
-        // Clear drops to prevent item spam
-        mob.getWorld().getEntitiesByClass(org.bukkit.entity.Monster.class).forEach(monster -> {
-          if (monster.equals(mob)) {
-            monster.remove();
-          }
-        });
+  /**
+   * Drops wave mobs that leave the world without dying, such as despawns or
+   * removals by other plugins, so the registry never holds stale entities.
+   */
+  @EventHandler
+  public void onEntityRemoveFromWorld(EntityRemoveFromWorldEvent event) {
+    if (!(event.getEntity() instanceof LivingEntity entity) || !villageManager.isVillageWorld(entity.getWorld())) {
+      return;
+    }
+    ticker.execute(() -> {
+      if (mobRegistry.remove(entity)) {
+        notifyIfCleared();
       }
+    });
+  }
+
+  /**
+   * Completes the wave when the last wave mob is gone.
+   */
+  private void notifyIfCleared() {
+    if (mobRegistry.size() == 0 && waveManager != null) {
+      waveManager.handleWaveMobsCleared();
+    }
+  }
+
+  @EventHandler
+  public void onProjectileLaunch(ProjectileLaunchEvent event) {
+    Projectile projectile = event.getEntity();
+    if (!(projectile.getShooter() instanceof LivingEntity shooter) || !villageManager.isVillageWorld(shooter.getWorld())) {
+      return;
     }
+    ticker.execute(() -> {
+      if (!mobRegistry.contains(shooter)) {
+        return;
+      }
+
+      // Drop projectiles that already hit and despawned so the set tracks only live ones
+      if (waveProjectiles.size() >= PROJECTILE_PRUNE_THRESHOLD) {
+        waveProjectiles.removeIf(tracked -> !tracked.isValid());
+      }
+      waveProjectiles.add(projectile);
+    });
+  }
 
-    // Clear all tracking
-    spawnTimes.clear();
+  /**
+   * Queues all remaining wave mobs and their projectiles for removal without drops.
+   * Removal is spread over the following ticks in batches of {@code wave.cleanup.batch_size}.
+   */
+  public void cleanupRemainingMobs() {
+    int queued = queueTrackedForRemoval();
+    plugin.getBastionLog().debug(BastionLog.Category.CLEANUP, "Queued %d remaining mobs and projectiles for cleanup", queued);
+    startCleanupTask();
+  }
+
+  /**
+   * Removes everything still queued for cleanup right now.
+   * Only used on plugin disable, when the ticker will no longer run the cleanup.
+   */
+  public void flushCleanup() {
+    queueTrackedForRemoval();
+    queueDropsForRemoval();
+    removeQueued(Integer.MAX_VALUE);
+  }
+
+  /**
+   * Moves every tracked mob and projectile into the removal queue and clears tracking.
+   * @return The number of entities queued
+   */
+  private int queueTrackedForRemoval() {
+    int queued = mobRegistry.size() + waveProjectiles.size() + dormantMobs.size();
+    mobRegistry.drainTo(pendingRemovals);
+    pendingRemovals.addAll(waveProjectiles);
+    pendingRemovals.addAll(dormantMobs);
+
+    waveProjectiles.clear();
+    dormantMobs.clear();
     currentMobCount = 0;
+    return queued;
+  }
+
+  /**
+   * Moves the tracked drops of earlier waves into the removal queue.
+   */
+  private void queueDropsForRemoval() {
+    pendingRemovals.addAll(waveDrops);
+    waveDrops.clear();
+  }
+
+  private void startCleanupTask() {
+    if (cleanupQueued || pendingRemovals.isEmpty()) {
+      return;
+    }
+
+    int batchSize = plugin.getSettings().cleanupBatchSize;
+    cleanupQueued = true;
+    ticker.defer(BastionTicker.Phase.SPAWN, () -> {
+      removeQueued(batchSize);
+      if (!pendingRemovals.isEmpty()) {
+        return false;
+      }
+      cleanupQueued = false;
+      plugin.getBastionLog().debug(BastionLog.Category.CLEANUP, "Mob cleanup completed");
+      return true;
+    });
+  }
 
-    plugin.getLogger().info("Mob cleanup completed");
+  /**
+   * Removes up to {@code limit} queued entities directly, without any world lookups.
+   */
+  private void removeQueued(int limit) {
+    for (int removed = 0; removed < limit && !pendingRemovals.isEmpty(); removed++) {
+      Entity entity = pendingRemovals.pollFirst();
+      if (entity.isValid()) {
+        ticker.runFor(entity, entity::remove);
+      }
+    }
   }
 
   /**
@@ -407,16 +760,38 @@ public class MobSpawnManager implements Listener {
   public int killAllSpawnedMobs() {
     int killedCount = 0;
     
-    // Copy keys to avoid ConcurrentModificationException
-    List<LivingEntity> mobsToKill = new ArrayList<>(spawnTimes.keySet());
+    // Copy the registry, death events remove mobs from it while looping
+    List<LivingEntity> mobsToKill = mobRegistry.snapshot();
     
     for (LivingEntity mob : mobsToKill) {
       if (mob.isValid()) {
-        mob.setHealth(0); // Kill the mob to trigger death event
+        ticker.runFor(mob, () -> mob.setHealth(0)); // Kill the mob to trigger death event
         killedCount++;
       }
     }
     
     return killedCount;
   }
+
+  /**
+   * Progress of spawning a wave plan, which may span several ticks when pre-staging.
+   */
+  private static final class SpawnRun {
+    final WavePlan plan;
+    final SpawnSummary summary;
+    final SpawnDispersion dispersion;
+    int nextMob;
+    int nextSpawnPoint;
+    Location lastSpawnLocation;
+
+    SpawnRun(WavePlan plan, SpawnDispersion dispersion) {
+      this.plan = plan;
+      this.summary = new SpawnSummary(plan.getWaveNumber(), plan.getMobCount(), plan.getAverageDifficulty());
+      this.dispersion = dispersion;
+    }
+
+    boolean isComplete() {
+      return nextMob >= plan.getMobCount();
+    }
+  }
 }
@@ -0,0 +1,173 @@
+package city.emerald.bastion.wave;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import com.destroystokyo.paper.entity.Pathfinder;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Mob;
+
+import city.emerald.bastion.BastionConfig;
+
+/**
+ * Gate in front of {@link Pathfinder#moveTo} for Bastion's own movement orders.
+ * Each mob may request a new path at most once per {@code path_min_interval_ticks},
+ * a path it issued that the mob is still following is kept when the new
+ * destination is within {@code path_reuse_distance} of the old one, and at most
+ * {@code path_budget_per_tick} paths are computed per tick across all mobs.
+ * Requests over the budget wait for {@link #issuePending()} on a later tick, only
+ * the latest per mob. Arena thread only.
+ */
+final class PathRequestService {
+
+  private int minIntervalTicks;
+  private double reuseDistanceSquared;
+  private int budgetPerTick;
+  private final Map<UUID, Request> lastRequests;
+  private final Map<UUID, Pending> pendingRequests;
+  private int currentTick;
+  private int requestsThisTick;
+
+  PathRequestService() {
+    this.lastRequests = new HashMap<>();
+    this.pendingRequests = new LinkedHashMap<>();
+  }
+
+  /**
+   * Applies the pathing settings of a configuration snapshot.
+   */
+  void reloadConfiguration(BastionConfig settings) {
+    this.minIntervalTicks = settings.pathMinIntervalTicks;
+    this.reuseDistanceSquared = settings.pathReuseDistance * settings.pathReuseDistance;
+    this.budgetPerTick = settings.pathBudgetPerTick;
+  }
+
+  /**
+   * Moves a mob toward a destination, computing a new path only when needed and allowed.
+   * @return True if the mob is now following a path to the destination
+   */
+  boolean moveTo(Mob mob, Location destination, double speed) {
+    startTick();
+    Request last = lastRequests.get(mob.getUniqueId());
+    if (last != null) {
+      // The path issued last time still leads close enough to the new destination
+      if (last.isFollowed() && last.distanceSquared(destination) <= reuseDistanceSquared) {
+        pendingRequests.remove(mob.getUniqueId());
+        return true;
+      }
+      if (currentTick - last.tick < minIntervalTicks) {
+        return false;
+      }
+    }
+    if (!hasBudget()) {
+      pendingRequests.put(mob.getUniqueId(), new Pending(mob, destination.clone(), speed));
+      return false;
+    }
+
+    pendingRequests.remove(mob.getUniqueId());
+    return issue(mob, destination, speed);
+  }
+
+  /**
+   * Issues requests left over from earlier ticks, oldest first, within this tick's budget.
+   */
+  void issuePending() {
+    startTick();
+    Iterator<Pending> pending = pendingRequests.values().iterator();
+    while (pending.hasNext() && hasBudget()) {
+      Pending request = pending.next();
+      pending.remove();
+      // Mobs outside the arena region belong to another thread
+      if (request.mob.isValid() && Bukkit.isOwnedByCurrentRegion(request.mob)) {
+        issue(request.mob, request.destination, request.speed);
+      }
+    }
+  }
+
+  /**
+   * Checks whether a mob is still following the last path issued for it, or has a
+   * request waiting for budget. False once another goal gave the mob a path of its own.
+   */
+  boolean isFollowing(Mob mob) {
+    if (pendingRequests.containsKey(mob.getUniqueId())) {
+      return true;
+    }
+    Request last = lastRequests.get(mob.getUniqueId());
+    return last != null && last.isFollowed();
+  }
+
+  /**
+   * Drops the request history of mobs that are no longer in the world.
+   */
+  void prune() {
+    lastRequests.values().removeIf(request -> !request.mob.isValid());
+    pendingRequests.values().removeIf(request -> !request.mob.isValid());
+  }
+
+  private void startTick() {
+    int now = Bukkit.getCurrentTick();
+    if (now != currentTick) {
+      currentTick = now;
+      requestsThisTick = 0;
+    }
+  }
+
+  private boolean hasBudget() {
+    return budgetPerTick <= 0 || requestsThisTick < budgetPerTick;
+  }
+
+  private boolean issue(Mob mob, Location destination, double speed) {
+    requestsThisTick++;
+    Pathfinder pathfinder = mob.getPathfinder();
+    Pathfinder.PathResult path = pathfinder.findPath(destination);
+    boolean moving = path != null && pathfinder.moveTo(path, speed);
+    Location finalPoint = moving ? path.getFinalPoint() : null;
+    lastRequests.put(mob.getUniqueId(), new Request(mob, destination, finalPoint, currentTick));
+    return moving;
+  }
+
+  private static final class Request {
+    final Mob mob;
+    final double x;
+    final double y;
+    final double z;
+    // End of the issued path, or null if none was found
+    final Location finalPoint;
+    final int tick;
+
+    Request(Mob mob, Location destination, Location finalPoint, int tick) {
+      this.mob = mob;
+      this.x = destination.getX();
+      this.y = destination.getY();
+      this.z = destination.getZ();
+      this.finalPoint = finalPoint;
+      this.tick = tick;
+    }
+
+    /**
+     * Checks whether the mob's current path is still the one issued for this
+     * request, rather than one a vanilla goal replaced it with.
+     */
+    boolean isFollowed() {
+      if (finalPoint == null) {
+        return false;
+      }
+      Pathfinder.PathResult current = mob.getPathfinder().getCurrentPath();
+      return current != null && finalPoint.equals(current.getFinalPoint());
+    }
+
+    double distanceSquared(Location location) {
+      double dx = location.getX() - x;
+      double dy = location.getY() - y;
+      double dz = location.getZ() - z;
+      return dx * dx + dy * dy + dz * dz;
+    }
+  }
+
+  private record Pending(Mob mob, Location destination, double speed) {}
+}
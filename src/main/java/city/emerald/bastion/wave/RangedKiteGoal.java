@@ -0,0 +1,63 @@
+package city.emerald.bastion.wave;
+
+import java.util.EnumSet;
+
+import com.destroystokyo.paper.entity.ai.Goal;
+import com.destroystokyo.paper.entity.ai.GoalKey;
+import com.destroystokyo.paper.entity.ai.GoalType;
+
+import org.bukkit.Bukkit;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Skeleton;
+
+/**
+ * Movement goal for wave skeletons that backs away from a target that came too
+ * close. Checked once every update interval, in server ticks, and kept active
+ * until the retreat path is finished or replaced, so the bow attack goal does not
+ * walk the skeleton straight back.
+ */
+final class RangedKiteGoal implements Goal<Skeleton> {
+
+  private final MobAI mobAI;
+  private final Skeleton skeleton;
+  private final GoalKey<Skeleton> key;
+  // Server tick from which the next check is due
+  private int nextCheckTick;
+
+  RangedKiteGoal(MobAI mobAI, Skeleton skeleton, NamespacedKey key) {
+    this.mobAI = mobAI;
+    this.skeleton = skeleton;
+    this.key = GoalKey.of(Skeleton.class, key);
+    this.nextCheckTick = Bukkit.getCurrentTick() + Math.floorMod(skeleton.getEntityId(), mobAI.getUpdateInterval());
+  }
+
+  @Override
+  public boolean shouldActivate() {
+    int now = Bukkit.getCurrentTick();
+    if (now - nextCheckTick < 0) {
+      return false;
+    }
+    nextCheckTick = now + mobAI.getUpdateInterval();
+    return mobAI.isTargetTooClose(skeleton);
+  }
+
+  @Override
+  public boolean shouldStayActive() {
+    return mobAI.isFollowingOwnPath(skeleton);
+  }
+
+  @Override
+  public void start() {
+    mobAI.retreatFromTarget(skeleton);
+  }
+
+  @Override
+  public GoalKey<Skeleton> getKey() {
+    return key;
+  }
+
+  @Override
+  public EnumSet<GoalType> getTypes() {
+    return EnumSet.of(GoalType.MOVE);
+  }
+}
@@ -0,0 +1,114 @@
+package city.emerald.bastion.wave;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tracks how many wave mobs were placed in each chunk and in each angular sector
+ * around the village, and rejects placements that would exceed the caps.
+ * Keeping spawns spread out avoids the quadratic collision and cramming cost of
+ * dense mob clusters. Not thread-safe; each planner or spawn run owns its own.
+ */
+final class SpawnDispersion {
+
+  private final double centerX;
+  private final double centerZ;
+  private final int mobCount;
+  private int maxPerChunk;
+  private int maxPerSector;
+  private final int[] sectorCounts;
+  private final Map<Long, Integer> chunkCounts;
+
+  private SpawnDispersion(double centerX, double centerZ, int mobCount, int sectors, int maxPerChunk, int maxPerSector) {
+    this.centerX = centerX;
+    this.centerZ = centerZ;
+    this.mobCount = mobCount;
+    this.maxPerChunk = maxPerChunk;
+    this.maxPerSector = maxPerSector;
+    this.sectorCounts = new int[sectors];
+    this.chunkCounts = new HashMap<>();
+  }
+
+  int getSectorCount() {
+    return sectorCounts.length;
+  }
+
+  /**
+   * Checks whether a mob may be placed at the given column without exceeding a cap.
+   */
+  boolean canPlace(double x, double z) {
+    return sectorCounts[sectorOf(x, z)] < maxPerSector
+      && chunkCounts.getOrDefault(chunkKey(x, z), 0) < maxPerChunk;
+  }
+
+  /**
+   * Doubles both caps for the rest of the wave, for when no usable column is left
+   * under them; a smaller wave than planned is worse than a denser one.
+   * @return False if the caps already admit the whole wave in one chunk and sector
+   */
+  boolean relax() {
+    if (maxPerChunk >= mobCount && maxPerSector >= mobCount) {
+      return false;
+    }
+    maxPerChunk = (int) Math.min(mobCount, maxPerChunk * 2L);
+    maxPerSector = (int) Math.min(mobCount, maxPerSector * 2L);
+    return true;
+  }
+
+  /**
+   * Records a placement.
+   * @return The number of mobs now placed in the column's chunk
+   */
+  int place(double x, double z) {
+    sectorCounts[sectorOf(x, z)]++;
+    return chunkCounts.merge(chunkKey(x, z), 1, Integer::sum);
+  }
+
+  int countInChunk(double x, double z) {
+    return chunkCounts.getOrDefault(chunkKey(x, z), 0);
+  }
+
+  private int sectorOf(double x, double z) {
+    double angle = Math.atan2(z - centerZ, x - centerX) + Math.PI;
+    int sector = (int) (angle / (2 * Math.PI) * sectorCounts.length);
+    return Math.min(sector, sectorCounts.length - 1);
+  }
+
+  private static long chunkKey(double x, double z) {
+    long chunkX = ((long) Math.floor(x)) >> 4;
+    long chunkZ = ((long) Math.floor(z)) >> 4;
+    return (chunkX << 32) ^ (chunkZ & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Immutable dispersion caps read from {@code wave.spawn.*}.
+   */
+  static final class Settings {
+
+    private final int sectors;
+    private final int maxPerChunk;
+    private final int maxPerSector;
+    private final double sectorSlack;
+
+    Settings(int sectors, int maxPerChunk, int maxPerSector, double sectorSlack) {
+      this.sectors = Math.max(1, sectors);
+      this.maxPerChunk = Math.max(1, maxPerChunk);
+      this.maxPerSector = maxPerSector;
+      this.sectorSlack = Math.max(1.0, sectorSlack);
+    }
+
+    /**
+     * Creates an empty tracker for a wave around the given center.
+     * @param centerX Village center X
+     * @param centerZ Village center Z
+     * @param mobCount Mob count of the wave, used for the automatic sector cap
+     */
+    SpawnDispersion create(double centerX, double centerZ, int mobCount) {
+      // A non-positive sector cap means the fair share of the wave plus some slack
+      int sectorCap = maxPerSector > 0
+        ? maxPerSector
+        : Math.max(1, (int) Math.ceil(mobCount * sectorSlack / sectors));
+      return new SpawnDispersion(centerX, centerZ, mobCount, sectors, maxPerChunk, sectorCap);
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package city.emerald.bastion.wave;
+
+import org.bukkit.entity.EntityType;
+
+/**
+ * Per-wave spawn statistics, logged as a single line once the wave has spawned
+ * instead of one line per mob. Only mutated on the arena thread; handed to the
+ * log writer once complete, which formats it via {@link #toString()}.
+ */
+final class SpawnSummary {
+
+  private final int waveNumber;
+  private final int requested;
+  private final double averageDifficulty;
+  private final int[] spawnedByType;
+  private int spawned;
+  private int elite;
+  private int boss;
+  private int relaxedPlacements;
+  private int failedPlacements;
+
+  SpawnSummary(int waveNumber, int requested, double averageDifficulty) {
+    this.waveNumber = waveNumber;
+    this.requested = requested;
+    this.averageDifficulty = averageDifficulty;
+    this.spawnedByType = new int[EntityType.values().length];
+  }
+
+  void recordSpawn(EntityType type, MobArchetypes.Rank rank) {
+    spawned++;
+    spawnedByType[type.ordinal()]++;
+    if (rank == MobArchetypes.Rank.ELITE) {
+      elite++;
+    } else if (rank == MobArchetypes.Rank.BOSS) {
+      boss++;
+    }
+  }
+
+  void recordRelaxedPlacement() {
+    relaxedPlacements++;
+  }
+
+  void recordFailedPlacement() {
+    failedPlacements++;
+  }
+
+  int getSpawned() {
+    return spawned;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder types = new StringBuilder();
+    EntityType[] values = EntityType.values();
+    for (int i = 0; i < spawnedByType.length; i++) {
+      if (spawnedByType[i] > 0) {
+        if (types.length() > 0) {
+          types.append(", ");
+        }
+        types.append(values[i].name().toLowerCase()).append('=').append(spawnedByType[i]);
+      }
+    }
+
+    return String.format(
+      "Spawned %d of %d requested mobs for wave %d (average difficulty %.2f, %d elite, %d boss, %d placed over the spread caps, %d failed placements): %s",
+      spawned,
+      requested,
+      waveNumber,
+      averageDifficulty,
+      elite,
+      boss,
+      relaxedPlacements,
+      failedPlacements,
+      types
+    );
+  }
+}
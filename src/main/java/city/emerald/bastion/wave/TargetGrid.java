@@ -0,0 +1,299 @@
+package city.emerald.bastion.wave;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Predicate;
+
+import org.bukkit.Location;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+
+/**
+ * Uniform grid over the XZ plane holding the players and villagers that wave mobs
+ * may target. Rebuilt once per AI pass; each lookup then only visits the cells
+ * within range of the mob and compares squared distances.
+ * Candidates are stored in compressed rows (one offset per cell into a shared
+ * index array), so a rebuild allocates nothing once the arrays have grown.
+ */
+final class TargetGrid {
+
+  // Caps the cell count when candidates are spread far apart, cells grow instead
+  private static final int MAX_CELLS_PER_AXIS = 64;
+
+  private LivingEntity[] candidates;
+  private boolean[] players;
+  private double[] xs;
+  private double[] ys;
+  private double[] zs;
+  private int[] cellOf;
+  private int count;
+  // Scratch buffer for in-range candidates of a single query
+  private int[] matches;
+
+  private int[] cellStart;
+  private int[] entries;
+  private double originX;
+  private double originZ;
+  private double cellSize;
+  private int columns;
+  private int rows;
+
+  TargetGrid() {
+    this.candidates = new LivingEntity[32];
+    this.players = new boolean[32];
+    this.xs = new double[32];
+    this.ys = new double[32];
+    this.zs = new double[32];
+    this.cellOf = new int[32];
+    this.entries = new int[32];
+    this.matches = new int[32];
+    this.cellStart = new int[2];
+    this.columns = 1;
+    this.rows = 1;
+    this.cellSize = 1.0;
+  }
+
+  /**
+   * Drops all candidates, call before adding the candidates of a new pass.
+   */
+  void clear() {
+    Arrays.fill(candidates, 0, count, null);
+    count = 0;
+  }
+
+  void add(LivingEntity entity) {
+    if (count == candidates.length) {
+      int capacity = count * 2;
+      candidates = Arrays.copyOf(candidates, capacity);
+      players = Arrays.copyOf(players, capacity);
+      xs = Arrays.copyOf(xs, capacity);
+      ys = Arrays.copyOf(ys, capacity);
+      zs = Arrays.copyOf(zs, capacity);
+      cellOf = Arrays.copyOf(cellOf, capacity);
+      entries = Arrays.copyOf(entries, capacity);
+      matches = Arrays.copyOf(matches, capacity);
+    }
+
+    Location location = entity.getLocation();
+    candidates[count] = entity;
+    players[count] = entity instanceof Player;
+    xs[count] = location.getX();
+    ys[count] = location.getY();
+    zs[count] = location.getZ();
+    count++;
+  }
+
+  /**
+   * Buckets the added candidates into cells.
+   * @param preferredCellSize Cell edge length in blocks
+   */
+  void build(double preferredCellSize) {
+    if (count == 0) {
+      columns = 1;
+      rows = 1;
+      cellStart[0] = 0;
+      cellStart[1] = 0;
+      return;
+    }
+
+    double minX = xs[0];
+    double maxX = xs[0];
+    double minZ = zs[0];
+    double maxZ = zs[0];
+    for (int i = 1; i < count; i++) {
+      minX = Math.min(minX, xs[i]);
+      maxX = Math.max(maxX, xs[i]);
+      minZ = Math.min(minZ, zs[i]);
+      maxZ = Math.max(maxZ, zs[i]);
+    }
+
+    double extent = Math.max(maxX - minX, maxZ - minZ);
+    cellSize = Math.max(Math.max(1.0, preferredCellSize), extent / MAX_CELLS_PER_AXIS);
+    originX = minX;
+    originZ = minZ;
+    columns = Math.min(MAX_CELLS_PER_AXIS, (int) ((maxX - minX) / cellSize) + 1);
+    rows = Math.min(MAX_CELLS_PER_AXIS, (int) ((maxZ - minZ) / cellSize) + 1);
+
+    int cells = columns * rows;
+    if (cellStart.length < cells + 1) {
+      cellStart = new int[cells + 1];
+    } else {
+      Arrays.fill(cellStart, 0, cells + 1, 0);
+    }
+
+    // Counting sort: count per cell, prefix sum into offsets, then scatter
+    for (int i = 0; i < count; i++) {
+      cellOf[i] = column(xs[i]) + row(zs[i]) * columns;
+      cellStart[cellOf[i] + 1]++;
+    }
+    for (int cell = 0; cell < cells; cell++) {
+      cellStart[cell + 1] += cellStart[cell];
+    }
+    int[] next = Arrays.copyOf(cellStart, cells);
+    for (int i = 0; i < count; i++) {
+      entries[next[cellOf[i]]++] = i;
+    }
+  }
+
+  /**
+   * Finds the best target for a mob at the given position. Within each kind of
+   * target the nearest one scores highest, so only the nearest player and the
+   * nearest villager are scored.
+   * @param location The mob's location
+   * @param maxDistance Maximum target distance
+   * @param playerWeight Score weight of players
+   * @param villagerWeight Score weight of villagers
+   * @return The best target, or null if none is in range
+   */
+  LivingEntity findBest(Location location, double maxDistance, double playerWeight, double villagerWeight) {
+    if (count == 0) {
+      return null;
+    }
+
+    double x = location.getX();
+    double y = location.getY();
+    double z = location.getZ();
+    double maxDistanceSquared = maxDistance * maxDistance;
+    int nearestPlayer = -1;
+    int nearestVillager = -1;
+    double nearestPlayerSquared = Double.MAX_VALUE;
+    double nearestVillagerSquared = Double.MAX_VALUE;
+
+    int minColumn = column(x - maxDistance);
+    int maxColumn = column(x + maxDistance);
+    int minRow = row(z - maxDistance);
+    int maxRow = row(z + maxDistance);
+    for (int row = minRow; row <= maxRow; row++) {
+      for (int column = minColumn; column <= maxColumn; column++) {
+        int cell = column + row * columns;
+        for (int e = cellStart[cell]; e < cellStart[cell + 1]; e++) {
+          int i = entries[e];
+          double dx = xs[i] - x;
+          double dy = ys[i] - y;
+          double dz = zs[i] - z;
+          double distanceSquared = dx * dx + dy * dy + dz * dz;
+          if (distanceSquared > maxDistanceSquared) {
+            continue;
+          }
+
+          // Ties keep the earlier candidate, matching the original scan order
+          if (players[i]) {
+            if (distanceSquared < nearestPlayerSquared
+              || (distanceSquared == nearestPlayerSquared && i < nearestPlayer)) {
+              nearestPlayerSquared = distanceSquared;
+              nearestPlayer = i;
+            }
+          } else if (distanceSquared < nearestVillagerSquared
+            || (distanceSquared == nearestVillagerSquared && i < nearestVillager)) {
+            nearestVillagerSquared = distanceSquared;
+            nearestVillager = i;
+          }
+        }
+      }
+    }
+
+    double bestScore = -1;
+    LivingEntity bestTarget = null;
+    if (nearestPlayer >= 0) {
+      bestScore = playerWeight * (1.0 - Math.sqrt(nearestPlayerSquared) / maxDistance);
+      bestTarget = candidates[nearestPlayer];
+    }
+    if (nearestVillager >= 0) {
+      double score = villagerWeight * (1.0 - Math.sqrt(nearestVillagerSquared) / maxDistance);
+      if (score > bestScore) {
+        bestTarget = candidates[nearestVillager];
+      }
+    }
+    return bestTarget;
+  }
+
+  /**
+   * Finds the first candidate within {@code radius} that passes {@code filter}.
+   * Candidates are tested in the order they were added, players before villagers,
+   * and the filter only runs on candidates that are in range.
+   * @param location The query location
+   * @param radius Search radius in blocks
+   * @param filter Check applied to in-range candidates
+   * @return The first matching candidate, or null
+   */
+  LivingEntity findFirst(Location location, double radius, Predicate<LivingEntity> filter) {
+    int found = gatherWithin(location, radius);
+    for (int m = 0; m < found; m++) {
+      LivingEntity candidate = candidates[matches[m]];
+      if (filter.test(candidate)) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Adds every candidate within {@code radius} that passes {@code filter} to
+   * {@code out}, in the order they were added to the grid.
+   */
+  void collectWithin(
+    Location location,
+    double radius,
+    Predicate<LivingEntity> filter,
+    Collection<? super LivingEntity> out
+  ) {
+    int found = gatherWithin(location, radius);
+    for (int m = 0; m < found; m++) {
+      LivingEntity candidate = candidates[matches[m]];
+      if (filter.test(candidate)) {
+        out.add(candidate);
+      }
+    }
+  }
+
+  /**
+   * Fills {@code matches} with the indices of in-range candidates in ascending order.
+   * @return The number of matches
+   */
+  private int gatherWithin(Location location, double radius) {
+    if (count == 0) {
+      return 0;
+    }
+
+    double x = location.getX();
+    double y = location.getY();
+    double z = location.getZ();
+    double radiusSquared = radius * radius;
+    int found = 0;
+
+    int minColumn = column(x - radius);
+    int maxColumn = column(x + radius);
+    int minRow = row(z - radius);
+    int maxRow = row(z + radius);
+    for (int row = minRow; row <= maxRow; row++) {
+      for (int column = minColumn; column <= maxColumn; column++) {
+        int cell = column + row * columns;
+        for (int e = cellStart[cell]; e < cellStart[cell + 1]; e++) {
+          int i = entries[e];
+          double dx = xs[i] - x;
+          double dy = ys[i] - y;
+          double dz = zs[i] - z;
+          if (dx * dx + dy * dy + dz * dz <= radiusSquared) {
+            matches[found++] = i;
+          }
+        }
+      }
+    }
+
+    Arrays.sort(matches, 0, found);
+    return found;
+  }
+
+  private int column(double x) {
+    return clamp((int) Math.floor((x - originX) / cellSize), columns);
+  }
+
+  private int row(double z) {
+    return clamp((int) Math.floor((z - originZ) / cellSize), rows);
+  }
+
+  // Positions outside the grid map to the edge cells, so range queries stay exact
+  private static int clamp(int index, int size) {
+    return Math.max(0, Math.min(size - 1, index));
+  }
+}
@@ -0,0 +1,72 @@
+package city.emerald.bastion.wave;
+
+import java.util.Arrays;
+
+/**
+ * Hashed timer wheel over integer slots, advanced one tick at a time by its owner.
+ * Entries are packed {@code (generation, slot)} pairs, so the owner can tell stale
+ * entries apart by bumping a slot's generation instead of removing them.
+ * Deadlines further away than the wheel span come up early and are expected to be
+ * rescheduled by the owner. Not thread safe.
+ */
+final class TimerWheel {
+
+  /**
+   * Receives the entries of the bucket for the current tick.
+   */
+  interface Expiry {
+    void expire(int slot, int generation);
+  }
+
+  private final int mask;
+  private final long[][] buckets;
+  private final int[] bucketSizes;
+  private long[] scratch;
+
+  /**
+   * @param span Number of buckets, rounded up to a power of two
+   */
+  TimerWheel(int span) {
+    int size = Integer.highestOneBit(Math.max(1, span - 1)) << 1;
+    this.mask = size - 1;
+    this.buckets = new long[size][4];
+    this.bucketSizes = new int[size];
+    this.scratch = new long[16];
+  }
+
+  void schedule(int slot, int generation, long tick) {
+    int bucket = (int) (tick & mask);
+    int size = bucketSizes[bucket];
+    if (size == buckets[bucket].length) {
+      buckets[bucket] = Arrays.copyOf(buckets[bucket], size * 2);
+    }
+    buckets[bucket][size] = ((long) generation << 32) | (slot & 0xFFFFFFFFL);
+    bucketSizes[bucket] = size + 1;
+  }
+
+  /**
+   * Hands every entry in the bucket of {@code tick} to {@code expiry}. Entries
+   * scheduled from inside the callback land in their bucket as usual.
+   */
+  void advance(long tick, Expiry expiry) {
+    int bucket = (int) (tick & mask);
+    int size = bucketSizes[bucket];
+    if (size == 0) {
+      return;
+    }
+    if (scratch.length < size) {
+      scratch = new long[Math.max(size, scratch.length * 2)];
+    }
+    System.arraycopy(buckets[bucket], 0, scratch, 0, size);
+    bucketSizes[bucket] = 0;
+
+    for (int i = 0; i < size; i++) {
+      long entry = scratch[i];
+      expiry.expire((int) entry, (int) (entry >>> 32));
+    }
+  }
+
+  void clear() {
+    Arrays.fill(bucketSizes, 0);
+  }
+}
@@ -1,17 +1,20 @@
 package city.emerald.bastion.wave;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.bukkit.Bukkit;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
-import org.bukkit.scheduler.BukkitTask;
 
 import city.emerald.bastion.Bastion;
+import city.emerald.bastion.BastionTicker;
 import city.emerald.bastion.VillageManager;
 import city.emerald.bastion.game.GameStateManager;
 
 public class WaveManager {
 
   private final Bastion plugin;
+  private final BastionTicker ticker;
   private final VillageManager villageManager;
   private final LightningManager lightningManager;
   private final GameStateManager gameStateManager;
@@ -20,9 +23,17 @@ public class WaveManager {
   private int currentWave;
   // remainingMobs and killCount no longer used - we use living mob count directly
   
-  // Wave timer fields
-  private BukkitTask waveTimerTask;
-  private long waveStartTime;
+  // Wave timer fields: the next countdown message or timeout is a single scheduled task
+  private static final long COUNTDOWN_TICKS = 10 * 20L;
+  private BastionTicker.Task deadlineTask;
+  // Pending start of the next wave, after the preparation or completion delay
+  private BastionTicker.Task waveStartTask;
+  private long activeSinceTick;
+  private long elapsedTicksBeforePause;
+  private boolean timerPaused;
+
+  // Plan for the upcoming wave, computed on a worker thread between waves
+  private CompletableFuture<WavePlan> pendingPlan;
 
   public enum WaveState {
     INACTIVE,
@@ -33,11 +44,13 @@ public class WaveManager {
 
   public WaveManager(
     Bastion plugin,
+    BastionTicker ticker,
     VillageManager villageManager,
     LightningManager lightningManager,
     GameStateManager gameStateManager
   ) {
     this.plugin = plugin;
+    this.ticker = ticker;
     this.villageManager = villageManager;
     this.lightningManager = lightningManager;
     this.gameStateManager = gameStateManager;
@@ -46,6 +59,15 @@ public class WaveManager {
     // Removed remainingMobs and killCount - using living mob count directly
   }
 
+  /**
+   * Moves the deadline of the running wave after the wave duration changed.
+   */
+  public void reloadWaveDuration() {
+    if (waveState == WaveState.ACTIVE && !timerPaused) {
+      scheduleNextDeadline();
+    }
+  }
+
   /**
    * Set the MobSpawnManager to enable cleanup functionality
    */
@@ -66,25 +88,35 @@ public class WaveManager {
     // Calculate mob count for spawning
     final int mobsToSpawn = calculateMobCount(waveNumber);
 
-    long preparationDelaySeconds = plugin.getLongSafe("wave.preparation_delay_seconds", 10L);
+    long preparationDelaySeconds = plugin.getSettings().preparationDelaySeconds;
+
+    // Plan during the preparation countdown unless it was already planned between waves
+    if (mobSpawnManager != null) {
+      if (!isPlanPending(waveNumber, mobsToSpawn)) {
+        pendingPlan = mobSpawnManager.planWaveAsync(waveNumber, mobsToSpawn);
+      }
+      if (plugin.getSettings().prestageEnabled) {
+        mobSpawnManager.prestageWave(pendingPlan, preparationDelaySeconds * 20L);
+      }
+    }
 
     // Announce wave start
-    Bukkit.broadcastMessage(
+    gameStateManager.broadcast(
       "§6Wave " + waveNumber + " starting in " + preparationDelaySeconds + " seconds!"
     );
 
     // Start wave after delay
-    Bukkit
-      .getScheduler()
-      .runTaskLater(
-        plugin,
+    cancelWaveStart();
+    waveStartTask = ticker
+      .runLater(
+        BastionTicker.Phase.COMBAT,
+        preparationDelaySeconds * 20L,
         () -> {
           this.waveState = WaveState.ACTIVE;
           this.currentWave = waveNumber;
           this.gameStateManager.setCurrentWaveNumber(waveNumber);
           
-          // Record wave start time and start timer
-          this.waveStartTime = System.currentTimeMillis();
+          // Start the wave timer
           startWaveTimer();
 
           // Start lightning strikes on boss waves
@@ -92,24 +124,28 @@ public class WaveManager {
             lightningManager.start();
           }
 
-          // Spawn the wave using the calculated mob count
+          // Spawn the wave from its plan
           if (mobSpawnManager != null) {
-            mobSpawnManager.spawnWave(waveNumber, mobsToSpawn);
+            WavePlan plan = takePlan(waveNumber, mobsToSpawn);
+            if (plan != null) {
+              mobSpawnManager.spawnWave(plan);
+            }
           }
 
           // Announce the wave start
-          Bukkit.broadcastMessage("§cWave " + waveNumber + " has begun!");
-        },
-        preparationDelaySeconds * 20L
+          gameStateManager.broadcast("§cWave " + waveNumber + " has begun!");
+
+          // No mob could be placed, so there is no death event to complete the wave
+          if (getRemainingMobs() <= 0) {
+            handleWaveMobsCleared();
+          }
+        }
       ); // 10 seconds * 20 ticks
   }
 
   public void completeWave() {
     // Cancel the timer first
-    if (waveTimerTask != null) {
-      waveTimerTask.cancel();
-      waveTimerTask = null;
-    }
+    cancelDeadline();
     
     // Determine next wave based on current state
     GameStateManager.GameState currentState = gameStateManager.getCurrentState();
@@ -118,11 +154,11 @@ public class WaveManager {
     if (currentState == GameStateManager.GameState.COMPLETED) {
       // Wave succeeded - advance to next wave
       nextWave = currentWave + 1;
-      plugin.getServer().broadcastMessage("§aWave " + currentWave + " completed!");
+      gameStateManager.broadcast("§aWave " + currentWave + " completed!");
       
       // Apply Hero of the Village effect every 5 waves
       if (currentWave > 0 && currentWave % 5 == 0) {
-        Bukkit.getOnlinePlayers().forEach(player -> {
+        gameStateManager.getParticipants().forEach(player -> {
           // Apply Hero of the Village for 2 Minecraft days (48000 ticks)
           player.addPotionEffect(new PotionEffect(PotionEffectType.HERO_OF_THE_VILLAGE, 48000, 0));
           player.sendMessage("§5You are celebrated as the Hero of the Village!");
@@ -130,7 +166,7 @@ public class WaveManager {
       }
     } else if (currentState == GameStateManager.GameState.FAILED) {
       // Wave failed - restart same wave
-      plugin.getServer().broadcastMessage("§cWave " + currentWave + " failed! Restarting...");
+      gameStateManager.broadcast("§cWave " + currentWave + " failed! Restarting...");
     }
     
     // Common cleanup
@@ -139,32 +175,69 @@ public class WaveManager {
     
     // Schedule next wave (either repeat or advance)
     final int finalNextWave = nextWave;
-    long completionDelaySeconds = plugin.getLongSafe("wave.completion_delay_seconds", 10L);
-    Bukkit.getScheduler().runTaskLater(plugin, () -> {
+    long completionDelaySeconds = plugin.getSettings().completionDelaySeconds;
+
+    // Plan the next wave in the background while players wait
+    if (mobSpawnManager != null) {
+      pendingPlan = mobSpawnManager.planWaveAsync(finalNextWave, calculateMobCount(finalNextWave));
+    }
+    cancelWaveStart();
+    waveStartTask = ticker.runLater(BastionTicker.Phase.COMBAT, completionDelaySeconds * 20L, () -> {
       startWave(finalNextWave);
-    }, completionDelaySeconds * 20L);
+    });
   }
 
   public void stopWave() {
     this.waveState = WaveState.INACTIVE;
+    pendingPlan = null;
     // No longer track remainingMobs - using living mob count directly
     
-    // Cancel wave timer
-    if (waveTimerTask != null) {
-      waveTimerTask.cancel();
-      waveTimerTask = null;
-    }
+    // Cancel wave timer and any wave waiting to start
+    cancelDeadline();
+    cancelWaveStart();
+    timerPaused = false;
     
     lightningManager.stop();
+
+    // Remove the wave's mobs gradually instead of leaving them in the world
+    if (mobSpawnManager != null) {
+      mobSpawnManager.stopSpawning();
+    }
+  }
+
+  /**
+   * Checks whether a plan for the given wave is already being computed or done.
+   */
+  private boolean isPlanPending(int waveNumber, int mobCount) {
+    if (pendingPlan == null || pendingPlan.isCompletedExceptionally()) {
+      return false;
+    }
+    WavePlan plan = pendingPlan.getNow(null);
+    return plan == null
+      ? !pendingPlan.isDone()
+      : plan.getWaveNumber() == waveNumber && plan.getMobCount() == mobCount;
   }
 
-  public void onMobKill() {
-    // This method is deprecated - wave completion is now checked via timer using living mob count
-    // Can be removed entirely
+  /**
+   * Takes the background plan for a wave, planning on the spot if it is missing,
+   * unfinished, failed, or was made for a different wave or player count.
+   */
+  private WavePlan takePlan(int waveNumber, int mobCount) {
+    CompletableFuture<WavePlan> future = pendingPlan;
+    pendingPlan = null;
+
+    WavePlan plan = null;
+    if (future != null && future.isDone() && !future.isCompletedExceptionally()) {
+      plan = future.getNow(null);
+    }
+    if (plan == null || plan.getWaveNumber() != waveNumber || plan.getMobCount() != mobCount) {
+      plan = mobSpawnManager.planWave(waveNumber, mobCount);
+    }
+    return plan;
   }
 
   private int calculateMobCount(int waveNumber) {
-    int playerCount = Bukkit.getOnlinePlayers().size();
+    int playerCount = gameStateManager.getParticipants().size();
     // Base mob count increases with wave number, scaled by player count
     return (5 + waveNumber) + (2 * playerCount);
   }
@@ -224,72 +297,135 @@ public class WaveManager {
   }
   
   /**
-   * Start the wave timer that runs every second to check for timeout and countdown
+   * Completes the active wave once its last mob is gone. Called by
+   * {@link MobSpawnManager} from the death or removal event that empties the
+   * registry, and on resume for mobs that died while the game was paused.
    */
-  private void startWaveTimer() {
-    if (waveTimerTask != null) {
-      waveTimerTask.cancel();
+  void handleWaveMobsCleared() {
+    if (waveState != WaveState.ACTIVE || gameStateManager.isPaused()) {
+      return;
     }
-    
-    waveTimerTask = Bukkit.getScheduler().runTaskTimer(plugin, this::handleWaveTimer, 20L, 20L);
+
+    // All mobs killed - set COMPLETED state and complete wave
+    gameStateManager.setCurrentState(GameStateManager.GameState.COMPLETED);
+    cleanupRemainingMobs();
+    completeWave();
   }
-  
+
   /**
-   * Handle wave timer tick - runs every second during active wave
+   * Freezes the wave timer while the game is paused.
    */
-  private void handleWaveTimer() {
-    if (waveState != WaveState.ACTIVE) {
+  public void pauseTimer() {
+    if (waveState != WaveState.ACTIVE || timerPaused) {
       return;
     }
-    
-    // Check if game is paused - if so, do nothing
-    if (gameStateManager.isPaused()) {
+    elapsedTicksBeforePause += Bukkit.getCurrentTick() - activeSinceTick;
+    timerPaused = true;
+    cancelDeadline();
+  }
+
+  /**
+   * Continues the wave timer after a pause, completing the wave right away if its
+   * last mob died while paused.
+   */
+  public void resumeTimer() {
+    if (waveState != WaveState.ACTIVE || !timerPaused) {
       return;
     }
-    
-    // Check for wave completion using living mob count
-    if (mobSpawnManager != null) {
-      int livingMobs = mobSpawnManager.getImmediateLivingMobCount();
-      if (livingMobs <= 0) {
-        // All mobs killed - set COMPLETED state and complete wave
-        gameStateManager.setCurrentState(GameStateManager.GameState.COMPLETED);
-        cleanupRemainingMobs();
-        completeWave();
-        return;
-      }
+    activeSinceTick = Bukkit.getCurrentTick();
+    timerPaused = false;
+    if (getRemainingMobs() <= 0) {
+      handleWaveMobsCleared();
+      return;
     }
-    
-    // Reload config value (allows runtime changes)
-    int waveDurationSeconds = plugin.getIntSafe("wave.wave_duration_seconds", 300);
-    
-    long elapsedSeconds = getElapsedTime();
-    long remainingSeconds = waveDurationSeconds - elapsedSeconds;
-    
-    if (remainingSeconds <= 0) {
+    scheduleNextDeadline();
+  }
+
+  /**
+   * Starts timing a new wave and schedules its first deadline
+   */
+  private void startWaveTimer() {
+    activeSinceTick = Bukkit.getCurrentTick();
+    elapsedTicksBeforePause = 0;
+    timerPaused = gameStateManager.isPaused();
+    if (!timerPaused) {
+      scheduleNextDeadline();
+    }
+  }
+
+  private void cancelWaveStart() {
+    if (waveStartTask != null) {
+      waveStartTask.cancel();
+      waveStartTask = null;
+    }
+  }
+
+  private void cancelDeadline() {
+    if (deadlineTask != null) {
+      deadlineTask.cancel();
+      deadlineTask = null;
+    }
+  }
+
+  /**
+   * Schedules the next point at which the timer has something to do: the start of
+   * the countdown, the next countdown message, or the timeout.
+   */
+  private void scheduleNextDeadline() {
+    cancelDeadline();
+    long remainingTicks = getRemainingTicks();
+    long delay;
+    if (remainingTicks <= 0) {
+      delay = 1L;
+    } else if (remainingTicks > COUNTDOWN_TICKS) {
+      delay = remainingTicks - COUNTDOWN_TICKS;
+    } else {
+      // Countdown messages fall on whole seconds remaining
+      delay = remainingTicks % 20 == 0 ? 20L : remainingTicks % 20;
+    }
+    deadlineTask = ticker.runLater(BastionTicker.Phase.COMBAT, delay, this::handleDeadline);
+  }
+
+  private void handleDeadline() {
+    deadlineTask = null;
+    if (waveState != WaveState.ACTIVE || timerPaused) {
+      return;
+    }
+
+    long remainingTicks = getRemainingTicks();
+    if (remainingTicks <= 0) {
       // Time expired - set FAILED state and complete wave
       gameStateManager.setCurrentState(GameStateManager.GameState.FAILED);
       cleanupRemainingMobs();
-      Bukkit.broadcastMessage("§cTime's up! Wave failed - restarting at same difficulty...");
+      gameStateManager.broadcast("§cTime's up! Wave failed - restarting at same difficulty...");
       completeWave();
-    } else if (remainingSeconds <= 10) {
+      return;
+    }
+
+    if (remainingTicks <= COUNTDOWN_TICKS) {
       // Display countdown
-      Bukkit.broadcastMessage("§c" + remainingSeconds + " seconds remaining!");
+      gameStateManager.broadcast("§c" + (remainingTicks + 19) / 20 + " seconds remaining!");
     }
-    // Otherwise do nothing
+    scheduleNextDeadline();
   }
-  
+
   /**
-   * Get elapsed time since wave started in seconds
+   * Get ticks the current wave has been running, excluding time spent paused
    */
-  private long getElapsedTime() {
-    return (System.currentTimeMillis() - waveStartTime) / 1000;
+  private long getElapsedTicks() {
+    return timerPaused
+      ? elapsedTicksBeforePause
+      : elapsedTicksBeforePause + Bukkit.getCurrentTick() - activeSinceTick;
   }
-  
+
+  private long getRemainingTicks() {
+    return plugin.getSettings().waveDurationSeconds * 20L - getElapsedTicks();
+  }
+
   /**
    * Get remaining time in current wave in seconds
    */
   public long getRemainingTime() {
-    int waveDurationSeconds = plugin.getIntSafe("wave.wave_duration_seconds", 300);
-    return waveDurationSeconds - getElapsedTime();
+    return (getRemainingTicks() + 19) / 20;
   }
 }
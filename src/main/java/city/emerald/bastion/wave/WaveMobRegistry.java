@@ -0,0 +1,93 @@
+package city.emerald.bastion.wave;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+
+/**
+ * The set of active wave mobs spawned by Bastion.
+ * Mobs are kept in a dense list with an index by UUID, so membership checks and
+ * removals are O(1) and per-tick loops iterate only wave mobs instead of every
+ * entity in the world. Owned by {@link MobSpawnManager}, which keeps it in step
+ * with spawns, deaths and removals. Arena thread only, except
+ * {@link #contains(Entity)}, which death events use from any thread.
+ */
+public final class WaveMobRegistry {
+
+  private final List<LivingEntity> mobs;
+  private final Map<UUID, Integer> indexById;
+
+  WaveMobRegistry() {
+    this.mobs = new ArrayList<>();
+    this.indexById = new ConcurrentHashMap<>();
+  }
+
+  void add(LivingEntity mob) {
+    if (indexById.putIfAbsent(mob.getUniqueId(), mobs.size()) == null) {
+      mobs.add(mob);
+    }
+  }
+
+  /**
+   * Removes a mob, moving the last mob into its slot.
+   * @return True if the entity was a registered wave mob
+   */
+  boolean remove(Entity entity) {
+    Integer index = indexById.remove(entity.getUniqueId());
+    if (index == null) {
+      return false;
+    }
+
+    LivingEntity last = mobs.remove(mobs.size() - 1);
+    if (index < mobs.size()) {
+      mobs.set(index, last);
+      indexById.put(last.getUniqueId(), index);
+    }
+    return true;
+  }
+
+  /**
+   * Moves every registered mob into {@code target} and clears the registry.
+   */
+  void drainTo(Collection<? super LivingEntity> target) {
+    target.addAll(mobs);
+    mobs.clear();
+    indexById.clear();
+  }
+
+  /**
+   * Copies the registered mobs, for loops that may kill or remove them.
+   */
+  public List<LivingEntity> snapshot() {
+    return new ArrayList<>(mobs);
+  }
+
+  /**
+   * Checks whether an entity is a registered wave mob. Safe to call from any thread.
+   */
+  public boolean contains(Entity entity) {
+    return indexById.containsKey(entity.getUniqueId());
+  }
+
+  /**
+   * Gets the number of registered mobs, including any that became invalid since the
+   * last removal event.
+   */
+  public int size() {
+    return mobs.size();
+  }
+
+  /**
+   * Gets a registered mob by position. Positions change when mobs are removed, so
+   * only use this to iterate within a single tick.
+   */
+  public LivingEntity get(int index) {
+    return mobs.get(index);
+  }
+}
@@ -0,0 +1,79 @@
+package city.emerald.bastion.wave;
+
+import org.bukkit.entity.EntityType;
+
+/**
+ * Immutable plan for a single wave: which mobs to spawn, which of them are elite,
+ * whether it is a boss wave, and candidate spawn columns around the village.
+ * Plans are built off the main thread by {@link WavePlanner} so that starting a
+ * wave only has to resolve spawn heights and spawn entities.
+ */
+public final class WavePlan {
+
+  private final int waveNumber;
+  private final EntityType[] mobTypes;
+  private final boolean[] elite;
+  private final boolean bossWave;
+  private final double[] spawnX;
+  private final double[] spawnZ;
+  private final double averageDifficulty;
+
+  WavePlan(
+    int waveNumber,
+    EntityType[] mobTypes,
+    boolean[] elite,
+    boolean bossWave,
+    double[] spawnX,
+    double[] spawnZ,
+    double averageDifficulty
+  ) {
+    this.waveNumber = waveNumber;
+    this.mobTypes = mobTypes;
+    this.elite = elite;
+    this.bossWave = bossWave;
+    this.spawnX = spawnX;
+    this.spawnZ = spawnZ;
+    this.averageDifficulty = averageDifficulty;
+  }
+
+  public int getWaveNumber() {
+    return waveNumber;
+  }
+
+  public int getMobCount() {
+    return mobTypes.length;
+  }
+
+  public EntityType getMobType(int index) {
+    return mobTypes[index];
+  }
+
+  public boolean isElite(int index) {
+    return elite[index];
+  }
+
+  public boolean isBossWave() {
+    return bossWave;
+  }
+
+  public double getAverageDifficulty() {
+    return averageDifficulty;
+  }
+
+  /**
+   * Gets the number of planned spawn columns. There are more columns than mobs so
+   * that columns made invalid by moving players can be skipped.
+   * @return The number of planned spawn columns
+   */
+  public int getSpawnPointCount() {
+    return spawnX.length;
+  }
+
+  public double getSpawnX(int index) {
+    return spawnX[index];
+  }
+
+  public double getSpawnZ(int index) {
+    return spawnZ[index];
+  }
+}
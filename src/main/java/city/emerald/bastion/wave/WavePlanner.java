@@ -0,0 +1,90 @@
+package city.emerald.bastion.wave;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.bukkit.entity.EntityType;
+
+/**
+ * Builds {@link WavePlan}s. Planning only touches immutable inputs captured on the
+ * main thread, so it is safe to run on an async worker.
+ */
+final class WavePlanner {
+
+  private static final double MIN_SPAWN_DISTANCE = 35.0;
+  private static final double MAX_SPAWN_DISTANCE = 45.0;
+  private static final int MAX_COLUMN_ATTEMPTS = 8;
+
+  private WavePlanner() {}
+
+  /**
+   * Plans a wave.
+   * @param table The compiled difficulty table
+   * @param waveNumber The wave number
+   * @param mobCount The number of mobs to spawn
+   * @param centerX Village center X
+   * @param centerZ Village center Z
+   * @param barrierRadius Barrier radius, spawn columns are kept inside it
+   * @param dispersionSettings Per-chunk and per-sector caps for spawn columns
+   * @param random Random source owned by the calling thread
+   * @return The finished plan
+   */
+  static WavePlan plan(
+    DifficultyTable table,
+    int waveNumber,
+    int mobCount,
+    double centerX,
+    double centerZ,
+    double barrierRadius,
+    SpawnDispersion.Settings dispersionSettings,
+    Random random
+  ) {
+    EntityType[] mobTypes = new EntityType[mobCount];
+    double averageDifficulty = table.compose(waveNumber, mobTypes, random);
+
+    boolean bossWave = waveNumber % 10 == 0;
+    boolean[] elite = new boolean[mobCount];
+    for (int i = 0; i < mobCount; i++) {
+      elite[i] = waveNumber >= 5 && random.nextDouble() < 0.2;
+    }
+
+    // Spare columns cover spots that turn out to be too close to players at spawn time.
+    // Columns are dealt round-robin over the sectors and capped per chunk.
+    int spawnPoints = mobCount * 2 + 16;
+    SpawnDispersion dispersion = dispersionSettings.create(centerX, centerZ, spawnPoints);
+    int sectors = dispersion.getSectorCount();
+    double sectorWidth = 2 * Math.PI / sectors;
+    double maxDistance = Math.max(1.0, Math.min(MAX_SPAWN_DISTANCE, barrierRadius - 1));
+    double minDistance = Math.min(MIN_SPAWN_DISTANCE, maxDistance);
+    double[] spawnX = new double[spawnPoints];
+    double[] spawnZ = new double[spawnPoints];
+    int planned = 0;
+    for (int i = 0; i < spawnPoints; i++) {
+      int sector = i % sectors;
+      for (int attempt = 0; attempt < MAX_COLUMN_ATTEMPTS; attempt++) {
+        // Sector 0 starts at -PI to match SpawnDispersion's atan2-based sectors
+        double angle = (sector + random.nextDouble()) * sectorWidth - Math.PI;
+        double distance = minDistance + random.nextDouble() * (maxDistance - minDistance);
+        double x = centerX + distance * Math.cos(angle);
+        double z = centerZ + distance * Math.sin(angle);
+        if (dispersion.canPlace(x, z)) {
+          dispersion.place(x, z);
+          spawnX[planned] = x;
+          spawnZ[planned] = z;
+          planned++;
+          break;
+        }
+      }
+    }
+
+    return new WavePlan(
+      waveNumber,
+      mobTypes,
+      elite,
+      bossWave,
+      Arrays.copyOf(spawnX, planned),
+      Arrays.copyOf(spawnZ, planned),
+      averageDifficulty
+    );
+  }
+}
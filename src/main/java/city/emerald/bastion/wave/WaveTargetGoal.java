@@ -0,0 +1,69 @@
+package city.emerald.bastion.wave;
+
+import java.util.EnumSet;
+
+import com.destroystokyo.paper.entity.ai.Goal;
+import com.destroystokyo.paper.entity.ai.GoalKey;
+import com.destroystokyo.paper.entity.ai.GoalType;
+
+import org.bukkit.Bukkit;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Mob;
+
+/**
+ * Target goal added to every wave mob. Re-evaluates the mob's target through
+ * {@link MobAI} once every update interval, counted in server ticks since the goal
+ * selector does not check inactive goals every tick; the first evaluation is offset
+ * by the entity id so mobs spawned together are spread over different ticks.
+ * Declares no goal types, so it runs alongside the vanilla target goals instead of
+ * preempting them; those goals keep tracking the target this goal picks.
+ */
+final class WaveTargetGoal implements Goal<Mob> {
+
+  private final MobAI mobAI;
+  private final Mob mob;
+  private final GoalKey<Mob> key;
+  // Server tick from which the next update is due
+  private int nextUpdateTick;
+
+  WaveTargetGoal(MobAI mobAI, Mob mob, NamespacedKey key) {
+    this.mobAI = mobAI;
+    this.mob = mob;
+    this.key = GoalKey.of(Mob.class, key);
+    this.nextUpdateTick = Bukkit.getCurrentTick() + Math.floorMod(mob.getEntityId(), mobAI.getUpdateInterval());
+  }
+
+  @Override
+  public boolean shouldActivate() {
+    int now = Bukkit.getCurrentTick();
+    if (now - nextUpdateTick < 0) {
+      return false;
+    }
+    // Over budget this tick, try again on the next one
+    if (!mobAI.tryAcquireUpdate()) {
+      return false;
+    }
+    nextUpdateTick = now + mobAI.getUpdateInterval();
+    return true;
+  }
+
+  @Override
+  public boolean shouldStayActive() {
+    return false;
+  }
+
+  @Override
+  public void start() {
+    mobAI.updateMobAI(mob);
+  }
+
+  @Override
+  public GoalKey<Mob> getKey() {
+    return key;
+  }
+
+  @Override
+  public EnumSet<GoalType> getTypes() {
+    return EnumSet.noneOf(GoalType.class);
+  }
+}